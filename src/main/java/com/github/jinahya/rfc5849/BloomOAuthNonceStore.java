@@ -0,0 +1,413 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A nonce store which puts a Bloom filter in front of another, exact, store.
+ * A combination the filter has definitely not seen is
+ * {@link OAuthNonceStore#put(String, String, long, String) put} to the exact
+ * store without a lookup while a combination the filter may have seen is
+ * checked by {@link OAuthNonceStore#add(String, String, long, String) add}.
+ * Since the filter is trusted for new combinations, the exact store must be
+ * written only through this store.
+ * <p>
+ * The filter is divided into {@value #SLICES} slices each of which covers a
+ * span of timestamps. A slice is cleared and reused once its span falls
+ * outside the window. All bits of a combination are kept in a single
+ * {@code long} word. Combinations sharing a word are checked and recorded one
+ * at a time so that, of concurrent duplicates, only one is taken as new.
+ * <p>
+ * The filter never takes more than a given number of bytes. A filter capped
+ * below the size required by the rate passes more combinations to the exact
+ * store, which still rejects every replay.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class BloomOAuthNonceStore implements OAuthNonceStore {
+
+    /**
+     * The number of slices. One slice more than the number of spans which
+     * may intersect the window at any time.
+     */
+    static final int SLICES = 16;
+
+    /**
+     * The maximum number of bits set for each combination.
+     */
+    private static final int MAX_BITS = 10;
+
+    /**
+     * The default maximum number of bytes of the filter.
+     */
+    static final long MEMORY = 64L << 20;
+
+    /**
+     * The number of locks shared by words. A power of two.
+     */
+    private static final int LOCKS = 64;
+
+    /**
+     * Mixes given value.
+     *
+     * @param z the value to mix
+     * @return a mixed value
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static long hash(final String consumerKey, final String token,
+                             final long timestamp, final String nonce) {
+        if (consumerKey == null) {
+            throw new NullPointerException("null consumerKey");
+        }
+        if (nonce == null) {
+            throw new NullPointerException("null nonce");
+        }
+        return mix(mix(mix(timestamp ^ consumerKey.hashCode())
+                       ^ (token == null ? 0 : token.hashCode()))
+                   ^ nonce.hashCode());
+    }
+
+    // ------------------------------------------------------------ constructors
+    /**
+     * Creates a new instance whose filter takes at most {@value #MEMORY}
+     * bytes.
+     *
+     * @param store the exact store; its window should not be narrower than
+     * {@code window}.
+     * @param window the number of seconds by which a timestamp may differ
+     * from the current time.
+     * @param rate the expected number of requests per second.
+     * @param falsePositiveRate the desired rate of fresh combinations which
+     * the filter may have seen.
+     * @throws IllegalArgumentException if any argument is out of range.
+     * @see #BloomOAuthNonceStore(OAuthNonceStore, int, int, double, long)
+     */
+    public BloomOAuthNonceStore(final OAuthNonceStore store, final int window,
+                                final int rate,
+                                final double falsePositiveRate) {
+        this(store, window, rate, falsePositiveRate, MEMORY);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param store the exact store; its window should not be narrower than
+     * {@code window}.
+     * @param window the number of seconds by which a timestamp may differ
+     * from the current time.
+     * @param rate the expected number of requests per second.
+     * @param falsePositiveRate the desired rate of fresh combinations which
+     * the filter may have seen.
+     * @param memory the maximum number of bytes of the filter; at least
+     * {@value #SLICES} words.
+     * @throws IllegalArgumentException if any argument is out of range.
+     */
+    public BloomOAuthNonceStore(final OAuthNonceStore store, final int window,
+                                final int rate,
+                                final double falsePositiveRate,
+                                final long memory) {
+        super();
+        if (store == null) {
+            throw new NullPointerException("null store");
+        }
+        if (window <= 0) {
+            throw new IllegalArgumentException("window(" + window + ") <= 0");
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate(" + rate + ") <= 0");
+        }
+        if (!(falsePositiveRate > 0.0d && falsePositiveRate < 1.0d)) {
+            throw new IllegalArgumentException(
+                    "falsePositiveRate(" + falsePositiveRate
+                    + ") not in (0, 1)");
+        }
+        if (memory < SLICES * (Long.SIZE / Byte.SIZE)) {
+            throw new IllegalArgumentException(
+                    "memory(" + memory + ") < "
+                    + SLICES * (Long.SIZE / Byte.SIZE));
+        }
+        this.store = store;
+        this.window = window;
+        // (2 * window) / span <= SLICES - 3; at most SLICES - 1 live spans
+        span = Math.max(1, (window * 2 + SLICES - 4) / (SLICES - 3));
+        // a word holding all bits of a combination needs about 25% more bits
+        // than a classic filter to reach the same rate
+        final double entries = (double) rate * span;
+        final double length = -entries * Math.log(falsePositiveRate)
+                              / (Math.log(2.0d) * Math.log(2.0d)) * 1.25d;
+        final long maxWords = Math.min(
+                memory / (SLICES * (Long.SIZE / Byte.SIZE)), 1 << 26);
+        int words = 1;
+        while (words < length / Long.SIZE && words << 1 <= maxWords) {
+            words <<= 1;
+        }
+        this.words = words;
+        this.bits = Math.max(1, Math.min(MAX_BITS, (int) Math.round(
+                                         -Math.log(falsePositiveRate)
+                                         / Math.log(2.0d))));
+        filter = new AtomicLongArray(SLICES * words);
+        spans = new AtomicLongArray(SLICES);
+        for (int i = 0; i < SLICES; i++) {
+            spans.set(i, Long.MIN_VALUE);
+        }
+        locks = new Object[SLICES];
+        for (int i = 0; i < SLICES; i++) {
+            locks[i] = new Object();
+        }
+        wordLocks = new Object[LOCKS];
+        for (int i = 0; i < LOCKS; i++) {
+            wordLocks[i] = new Object();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the current time in seconds.
+     *
+     * @return the current time in seconds
+     */
+    long now() {
+        return System.currentTimeMillis() / 1000L;
+    }
+
+    /**
+     * Returns the offset of the slice for given span, clearing the slice if
+     * it still holds an older span.
+     *
+     * @return the offset of the slice; {@code -1} if the slice already holds
+     * a newer span.
+     */
+    private int slice(final long span) {
+        final long index = span % SLICES;
+        final int slice = (int) (index < 0 ? index + SLICES : index);
+        long current = spans.get(slice);
+        if (current != span) {
+            synchronized (locks[slice]) {
+                current = spans.get(slice);
+                if (current > span) {
+                    return -1;
+                }
+                if (current < span) {
+                    for (int i = slice * words, j = i + words; i < j; i++) {
+                        filter.set(i, 0L);
+                    }
+                    spans.set(slice, span); // publishes the cleared words
+                }
+            }
+        }
+        return slice * words;
+    }
+
+    /**
+     * Returns the index of the word for given combination, clearing the slice
+     * if required.
+     *
+     * @return the index of the word; {@code -1} if the combination should be
+     * rejected.
+     */
+    private int index(final long timestamp, final long hash) {
+        final long now = now();
+        if (timestamp < now - window || timestamp > now + window) {
+            return -1;
+        }
+        final int offset = slice(timestamp >= 0L
+                                 ? timestamp / span
+                                 : (timestamp + 1L) / span - 1L);
+        if (offset < 0) {
+            return -1;
+        }
+        return offset + (int) ((hash >>> 32) & (words - 1));
+    }
+
+    private long mask(final long hash) {
+        final long mixed = mix(hash);
+        long mask = 0L;
+        for (int i = 0; i < bits; i++) {
+            mask |= 1L << ((mixed >>> (i * 6)) & 0x3F);
+        }
+        return mask;
+    }
+
+    private void set(final int index, final long mask) {
+        long word;
+        do {
+            word = filter.get(index);
+        } while ((word & mask) != mask
+                 && !filter.compareAndSet(index, word, word | mask));
+    }
+
+    /**
+     * {@inheritDoc} A combination which the filter has definitely not seen is
+     * put to the exact store and set to the filter. A combination which the
+     * filter may have seen is added to the exact store.
+     *
+     * @param consumerKey {@inheritDoc}
+     * @param token {@inheritDoc}
+     * @param timestamp {@inheritDoc}
+     * @param nonce {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean add(final String consumerKey, final String token,
+                       final long timestamp, final String nonce) {
+        final long hash = hash(consumerKey, token, timestamp, nonce);
+        final int index = index(timestamp, hash);
+        if (index < 0) {
+            return false;
+        }
+        final long mask = mask(hash);
+        synchronized (wordLocks[index & (LOCKS - 1)]) {
+            if ((filter.get(index) & mask) == mask) {
+                maybes.incrementAndGet();
+                final boolean added
+                        = store.add(consumerKey, token, timestamp, nonce);
+                if (added) {
+                    falsePositives.incrementAndGet();
+                }
+                return added;
+            }
+            if (!store.put(consumerKey, token, timestamp, nonce)) {
+                return false;
+            }
+            set(index, mask);
+        }
+        news.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} This method puts given combination to the exact store and
+     * sets it to the filter.
+     *
+     * @param consumerKey {@inheritDoc}
+     * @param token {@inheritDoc}
+     * @param timestamp {@inheritDoc}
+     * @param nonce {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean put(final String consumerKey, final String token,
+                       final long timestamp, final String nonce) {
+        final long hash = hash(consumerKey, token, timestamp, nonce);
+        final int index = index(timestamp, hash);
+        if (index < 0) {
+            return false;
+        }
+        if (!store.put(consumerKey, token, timestamp, nonce)) {
+            return false;
+        }
+        set(index, mask(hash));
+        return true;
+    }
+
+    // ----------------------------------------------------------------- metrics
+    /**
+     * Returns the number of combinations the filter had definitely not seen.
+     *
+     * @return the number of definitely new combinations
+     */
+    public long news() {
+        return news.get();
+    }
+
+    /**
+     * Returns the number of combinations the filter may have seen and thus
+     * were checked by the exact store.
+     *
+     * @return the number of combinations checked by the exact store
+     */
+    public long maybes() {
+        return maybes.get();
+    }
+
+    /**
+     * Returns the number of combinations the filter may have seen but were
+     * accepted by the exact store.
+     *
+     * @return the number of false positives
+     */
+    public long falsePositives() {
+        return falsePositives.get();
+    }
+
+    /**
+     * Returns the observed rate of false positives among accepted
+     * combinations.
+     *
+     * @return the observed false positive rate
+     */
+    public double falsePositiveRate() {
+        final long falsePositives = this.falsePositives.get();
+        final long accepted = news.get() + falsePositives;
+        return accepted == 0L ? 0.0d : (double) falsePositives / accepted;
+    }
+
+    /**
+     * Returns the number of bytes of the filter.
+     *
+     * @return the number of bytes of the filter
+     */
+    public long memory() {
+        return (long) SLICES * words * (Long.SIZE / Byte.SIZE);
+    }
+
+    // -------------------------------------------------------------------------
+    private final OAuthNonceStore store;
+
+    private final int window;
+
+    /**
+     * The number of seconds covered by each slice.
+     */
+    private final int span;
+
+    /**
+     * The number of words of each slice.
+     */
+    private final int words;
+
+    /**
+     * The number of bits set for each combination.
+     */
+    private final int bits;
+
+    private final AtomicLongArray filter;
+
+    /**
+     * The span held by each slice.
+     */
+    private final AtomicLongArray spans;
+
+    private final Object[] locks;
+
+    /**
+     * The locks of words; each is shared by every {@value #LOCKS}th word.
+     */
+    private final Object[] wordLocks;
+
+    private final AtomicLong news = new AtomicLong();
+
+    private final AtomicLong maybes = new AtomicLong();
+
+    private final AtomicLong falsePositives = new AtomicLong();
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An in-memory nonce store which accepts timestamps within a window around
+ * the current time. Entries are sharded into lock stripes by their consumer
+ * keys and each stripe keeps a ring of buckets, one for each second of the
+ * window. A whole bucket is dropped once its second falls outside the window
+ * so that there is no timer for each entry and no global lock.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class BucketedOAuthNonceStore implements OAuthNonceStore {
+
+    /**
+     * The default number of stripes.
+     */
+    static final int STRIPES = 64;
+
+    /**
+     * An entry in a bucket. The timestamp is implied by the bucket.
+     */
+    private static final class Entry {
+
+        Entry(final String consumerKey, final String token,
+              final String nonce) {
+            super();
+            this.consumerKey = consumerKey;
+            this.token = token;
+            this.nonce = nonce;
+            hash = (consumerKey.hashCode() * 31 + token.hashCode()) * 31
+                   + nonce.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Entry)) {
+                return false;
+            }
+            final Entry entry = (Entry) obj;
+            return hash == entry.hash && nonce.equals(entry.nonce)
+                   && token.equals(entry.token)
+                   && consumerKey.equals(entry.consumerKey);
+        }
+
+        private final String consumerKey;
+
+        private final String token;
+
+        private final String nonce;
+
+        private final int hash;
+    }
+
+    /**
+     * A lock stripe holding a ring of buckets.
+     */
+    private static final class Stripe {
+
+        Stripe(final int buckets, final int capacity) {
+            super();
+            seconds = new long[buckets];
+            this.buckets = new Set<?>[buckets];
+            this.capacity = capacity;
+        }
+
+        private int index(final long second) {
+            final long index = second % seconds.length;
+            return (int) (index < 0 ? index + seconds.length : index);
+        }
+
+        private void drop(final int index) {
+            final Set<?> bucket = buckets[index];
+            if (bucket != null) {
+                size -= bucket.size();
+                buckets[index] = null;
+            }
+        }
+
+        /**
+         * Drops buckets of seconds before given second.
+         */
+        private void expire(final long oldest) {
+            if (swept >= oldest) {
+                return;
+            }
+            if (swept <= oldest - seconds.length) {
+                for (int index = 0; index < seconds.length; index++) {
+                    if (seconds[index] < oldest) {
+                        drop(index);
+                    }
+                }
+            } else {
+                for (long second = swept; second < oldest; second++) {
+                    final int index = index(second);
+                    if (seconds[index] == second) {
+                        drop(index);
+                    }
+                }
+            }
+            swept = oldest;
+        }
+
+        /**
+         * Records given entry. Unless {@code checked}, the entry is not
+         * looked up before the write and only the write itself tells a
+         * duplicate.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized boolean add(final long oldest, final long second,
+                                 final Entry entry, final boolean checked) {
+            expire(oldest);
+            final int index = index(second);
+            if (seconds[index] != second) {
+                drop(index);
+                seconds[index] = second;
+            }
+            Set<Entry> bucket = (Set<Entry>) buckets[index];
+            if (bucket == null) {
+                bucket = new HashSet<Entry>();
+                buckets[index] = bucket;
+            } else if (checked && bucket.contains(entry)) {
+                replays++;
+                return false;
+            }
+            if (size >= capacity) {
+                overflows++;
+                return false;
+            }
+            if (!bucket.add(entry)) {
+                replays++;
+                return false;
+            }
+            size++;
+            return true;
+        }
+
+        synchronized void expireAt(final long oldest) {
+            expire(oldest);
+        }
+
+        synchronized void outOfWindow(final long oldest) {
+            expire(oldest);
+            outOfWindow++;
+        }
+
+        /**
+         * The second of each bucket.
+         */
+        private final long[] seconds;
+
+        private final Set<?>[] buckets;
+
+        private final int capacity;
+
+        /**
+         * The lowest second whose bucket may still be held.
+         */
+        private long swept = Long.MIN_VALUE;
+
+        private volatile int size;
+
+        private volatile long replays;
+
+        private volatile long overflows;
+
+        private volatile long outOfWindow;
+    }
+
+    // ------------------------------------------------------------ constructors
+    /**
+     * Creates a new instance with given window and {@value #STRIPES}
+     * stripes.
+     *
+     * @param window the number of seconds by which a timestamp may differ
+     * from the current time.
+     * @param capacity the maximum number of entries.
+     * @see #BucketedOAuthNonceStore(int, int, int)
+     */
+    public BucketedOAuthNonceStore(final int window, final int capacity) {
+        this(window, capacity, STRIPES);
+    }
+
+    /**
+     * Creates a new instance. Since the capacity is divided among stripes,
+     * an add to a full stripe is rejected even when other stripes have
+     * room.
+     *
+     * @param window the number of seconds by which a timestamp may differ
+     * from the current time.
+     * @param capacity the maximum number of entries.
+     * @param stripes the number of stripes.
+     * @throws IllegalArgumentException if any argument is not positive.
+     */
+    public BucketedOAuthNonceStore(final int window, final int capacity,
+                                   final int stripes) {
+        super();
+        if (window <= 0) {
+            throw new IllegalArgumentException("window(" + window + ") <= 0");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "capacity(" + capacity + ") <= 0");
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException(
+                    "stripes(" + stripes + ") <= 0");
+        }
+        this.window = window;
+        this.stripes = new Stripe[stripes];
+        final int perStripe = Math.max(1, capacity / stripes);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(window * 2 + 1, perStripe);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the current time in seconds.
+     *
+     * @return the current time in seconds
+     */
+    long now() {
+        return System.currentTimeMillis() / 1000L;
+    }
+
+    private Stripe stripe(final String consumerKey) {
+        final int h = consumerKey.hashCode();
+        return stripes[((h ^ (h >>> 16)) & 0x7FFFFFFF) % stripes.length];
+    }
+
+    /**
+     * {@inheritDoc} A request is rejected if its timestamp differs from the
+     * current time by more than the window, if the combination is already
+     * recorded, or if the stripe of the consumer key is full.
+     *
+     * @param consumerKey {@inheritDoc}
+     * @param token {@inheritDoc}
+     * @param timestamp {@inheritDoc}
+     * @param nonce {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean add(final String consumerKey, final String token,
+                       final long timestamp, final String nonce) {
+        return add(consumerKey, token, timestamp, nonce, true);
+    }
+
+    /**
+     * {@inheritDoc} The combination is written to its bucket without a
+     * lookup. Since a bucket is a set, the write still tells whether the
+     * combination was already recorded, though a full stripe rejects it as
+     * an overflow rather than a replay.
+     *
+     * @param consumerKey {@inheritDoc}
+     * @param token {@inheritDoc}
+     * @param timestamp {@inheritDoc}
+     * @param nonce {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean put(final String consumerKey, final String token,
+                       final long timestamp, final String nonce) {
+        return add(consumerKey, token, timestamp, nonce, false);
+    }
+
+    private boolean add(final String consumerKey, final String token,
+                        final long timestamp, final String nonce,
+                        final boolean checked) {
+        if (consumerKey == null) {
+            throw new NullPointerException("null consumerKey");
+        }
+        if (nonce == null) {
+            throw new NullPointerException("null nonce");
+        }
+        final long now = now();
+        final Stripe stripe = stripe(consumerKey);
+        if (timestamp < now - window || timestamp > now + window) {
+            stripe.outOfWindow(now - window);
+            return false;
+        }
+        return stripe.add(now - window, timestamp, new Entry(
+                          consumerKey, token == null ? "" : token, nonce),
+                          checked);
+    }
+
+    /**
+     * Drops all buckets of seconds already outside the window. Buckets are
+     * dropped by {@link #add(String, String, long, String)} as well; this
+     * method is for reclaiming memory of stripes not used for a while.
+     */
+    public void expire() {
+        final long oldest = now() - window;
+        for (final Stripe stripe : stripes) {
+            stripe.expireAt(oldest);
+        }
+    }
+
+    // ----------------------------------------------------------------- metrics
+    /**
+     * Returns the window.
+     *
+     * @return the number of seconds by which a timestamp may differ from the
+     * current time.
+     */
+    public int window() {
+        return window;
+    }
+
+    /**
+     * Returns the current number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (final Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of requests rejected as replays.
+     *
+     * @return the number of replays
+     */
+    public long replays() {
+        long replays = 0L;
+        for (final Stripe stripe : stripes) {
+            replays += stripe.replays;
+        }
+        return replays;
+    }
+
+    /**
+     * Returns the number of requests rejected for their full stripes.
+     *
+     * @return the number of overflows
+     */
+    public long overflows() {
+        long overflows = 0L;
+        for (final Stripe stripe : stripes) {
+            overflows += stripe.overflows;
+        }
+        return overflows;
+    }
+
+    /**
+     * Returns the number of requests rejected for their timestamps outside
+     * the window.
+     *
+     * @return the number of requests rejected for their timestamps
+     */
+    public long outOfWindow() {
+        long outOfWindow = 0L;
+        for (final Stripe stripe : stripes) {
+            outOfWindow += stripe.outOfWindow;
+        }
+        return outOfWindow;
+    }
+
+    // -------------------------------------------------------------------------
+    private final int window;
+
+    private final Stripe[] stripes;
+}
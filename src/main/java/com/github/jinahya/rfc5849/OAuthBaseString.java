@@ -16,13 +16,10 @@
 package com.github.jinahya.rfc5849;
 
 import static com.github.jinahya.rfc5849._Percent.encodePercent;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.TreeMap;
 
 /**
  * A builder for generating signature base strings.
@@ -35,6 +32,25 @@ public class OAuthBaseString {//implements Builder<String> {
 
     static final String PROTOCOL_PARAMETER_PREFIX = "oauth_";
 
+    // ------------------------------------------------------------ constructors
+    /**
+     * Creates a new instance.
+     */
+    public OAuthBaseString() {
+        this(null);
+    }
+
+    /**
+     * Creates a new instance bound to given template.
+     *
+     * @param template the template; may be {@code null}
+     * @see OAuthBaseStringTemplate#newBaseString()
+     */
+    OAuthBaseString(final OAuthBaseStringTemplate template) {
+        super();
+        this.template = template;
+    }
+
     // -------------------------------------------------------------------------
     /**
      * Builds the signature base string.
@@ -42,12 +58,83 @@ public class OAuthBaseString {//implements Builder<String> {
      * @return the signature base string.
      */
     public String get() {
+        return prefix() + suffix();
+    }
+
+    /**
+     * Builds the leading part of the signature base string which consists of
+     * the encoded {@code httpMethod}, the encoded {@code baseUri} and two
+     * {@code &} characters. The value depends only on the request endpoint.
+     *
+     * @return the leading part of the signature base string.
+     */
+    String prefix() {
+        if (template != null) {
+            return template.prefix();
+        }
         if (httpMethod == null) {
             throw new IllegalStateException("no httpMethod set");
         }
         if (baseUri == null) {
             throw new IllegalStateException("no baseUri set");
         }
+        return prefix(httpMethod, baseUri);
+    }
+
+    /**
+     * Builds the leading part of a signature base string with given values.
+     *
+     * @param httpMethod the upper-cased {@code httpMethod}
+     * @param baseUri the {@code baseUri}
+     * @return the leading part of the signature base string.
+     */
+    static String prefix(final String httpMethod, final String baseUri) {
+        final StringBuilder builder = new StringBuilder(
+                httpMethod.length() + baseUri.length() + 16);
+        encodePercent(httpMethod, builder);
+        encodePercent(baseUri, builder.append('&'));
+        return builder.append('&').toString();
+    }
+
+    /**
+     * Builds the trailing part of the signature base string which is the
+     * encoded normalized request parameters.
+     *
+     * @return the trailing part of the signature base string.
+     */
+    String suffix() {
+        try {
+            return new String(normalized().toByteArray(), "US-ASCII");
+        } catch (final UnsupportedEncodingException uee) {
+            throw new RuntimeException(uee.getMessage());
+        }
+    }
+
+    /**
+     * Writes the signature base string to given output incrementally, without
+     * building the whole string in advance. The bytes written are the same as
+     * the {@code US-ASCII} encoded value of {@link #get()}.
+     *
+     * @param output the output
+     * @throws IOException if an I/O error occurs.
+     */
+    public void write(final OutputStream output) throws IOException {
+        if (output == null) {
+            throw new NullPointerException("null output");
+        }
+        output.write(template != null
+                     ? template.prefixBytes() : prefix().getBytes("US-ASCII"));
+        writeSuffix(output);
+    }
+
+    /**
+     * Writes the trailing part of the signature base string to given output.
+     *
+     * @param output the output
+     * @throws IOException if an I/O error occurs.
+     * @see #suffix()
+     */
+    void writeSuffix(final OutputStream output) throws IOException {
 //        if (!requestParameters().containsKey(OAuthConstants.OAUTH_NONCE)) {
 //            throw new IllegalStateException(
 //                    "no " + OAuthConstants.OAUTH_NONCE + " set");
@@ -56,36 +143,91 @@ public class OAuthBaseString {//implements Builder<String> {
 //            throw new IllegalStateException(
 //                    "no " + OAuthConstants.OAUTH_TIMESTAMP + " set");
 //        }
-        final Map<String, List<String>> encodedRequestParameters
-                = new TreeMap<String, List<String>>();
-        for (final Entry<String, List<String>> entry
-             : requestParameters().entrySet()) {
-            final String key = entry.getKey();
-            final String key_ = encodePercent(key);
-            final List<String> values = entry.getValue();
-            final List<String> values_ = new ArrayList<String>(values.size());
-            for (final String value : values) {
-                values_.add(encodePercent(value));
-            }
-            Collections.sort(values_);
-            encodedRequestParameters.put(key_, values_);
+        normalized().write(output);
+    }
+
+    /**
+     * Returns a message of the whole signature base string of this instance.
+     * The message reflects the current state of this instance whenever it is
+     * written.
+     *
+     * @return a message of the signature base string
+     * @see #write(java.io.OutputStream)
+     */
+    _Message message() {
+        if (message == null) {
+            message = _Message.of(this);
         }
-        final StringBuilder builder = new StringBuilder();
-        for (final Entry<String, List<String>> entry
-             : encodedRequestParameters.entrySet()) {
-            final String key = entry.getKey();
-            for (final String value : entry.getValue()) {
-                if (builder.length() > 0) {
-                    builder.append("&");
-                }
-                builder.append(key).append("=").append(value);
-            }
+        return message;
+    }
+
+    /**
+     * Returns a message of the trailing part of the signature base string of
+     * this instance.
+     *
+     * @return a message of the trailing part of the signature base string
+     * @see #writeSuffix(java.io.OutputStream)
+     */
+    _Message suffixMessage() {
+        if (suffixMessage == null) {
+            suffixMessage = _Message.suffixOf(this);
+        }
+        return suffixMessage;
+    }
+
+    /**
+     * Normalizes the request parameters, merged into those of the template if
+     * this instance is bound to a template.
+     *
+     * @return the normalized request parameters
+     */
+    private _Normalized normalized() {
+        return new _Normalized(template == null ? null : template.normalized(),
+                               requestParameters());
+    }
+
+    // ---------------------------------------------------------------- template
+    /**
+     * Compiles the static part of this base string into an immutable template
+     * which can be shared by multiple threads.
+     *
+     * @return a new template
+     * @throws IllegalStateException if {@code httpMethod} or {@code baseUri}
+     * is not set.
+     * @see OAuthBaseStringTemplate
+     */
+    public OAuthBaseStringTemplate compile() {
+        return new OAuthBaseStringTemplate(this);
+    }
+
+    /**
+     * Returns the template to which this instance is bound.
+     *
+     * @return the template or {@code null}
+     */
+    OAuthBaseStringTemplate template() {
+        return template;
+    }
+
+    // ------------------------------------------------------------------- clear
+    /**
+     * Clears the {@code httpMethod}, the {@code baseUri} and all request
+     * parameters of this instance so that it can be reused for another
+     * request. Internal arrays are kept for reuse. The template of a bound
+     * instance is kept.
+     *
+     * @return this instance
+     */
+    public OAuthBaseString clear() {
+        if (template == null) {
+            httpMethod = null;
+            baseUri = null;
+        }
+        if (requestParameters != null) {
+            requestParameters.clear();
         }
-        return encodePercent(httpMethod)
-               + "&"
-               + encodePercent(baseUri)
-               + "&"
-               + encodePercent(builder.toString());
+        revision++;
+        return this;
     }
 
     // -------------------------------------------------------------- httpMethod
@@ -94,6 +236,7 @@ public class OAuthBaseString {//implements Builder<String> {
      *
      * @param httpMethod the value of {@code httpMethod}.
      * @return this instance.
+     * @throws IllegalStateException if this instance is bound to a template.
      * @see <a href="https://tools.ietf.org/html/rfc5849#section-3.4.1">3.4.1.
      * Signature Base String (RFC 5849)</a>
      */
@@ -101,7 +244,11 @@ public class OAuthBaseString {//implements Builder<String> {
         if (httpMethod == null) {
             throw new NullPointerException("null httpMethod");
         }
+        if (template != null) {
+            throw new IllegalStateException("bound to a template");
+        }
         this.httpMethod = httpMethod.toUpperCase();
+        revision++;
         return this;
     }
 
@@ -111,11 +258,16 @@ public class OAuthBaseString {//implements Builder<String> {
      *
      * @param baseUri the value for {@code baseUri}.
      * @return this instance.
+     * @throws IllegalStateException if this instance is bound to a template.
      * @see <a href="https://tools.ietf.org/html/rfc5849#section-3.4.1">3.4.1.
      * Signature Base String (RFC 5849)</a>
      */
     public OAuthBaseString baseUri(final String baseUri) {
+        if (template != null) {
+            throw new IllegalStateException("bound to a template");
+        }
         this.baseUri = baseUri;
+        revision++;
         return this;
     }
 
@@ -125,15 +277,17 @@ public class OAuthBaseString {//implements Builder<String> {
      *
      * @return the request parameters.
      */
-    Map<String, List<String>> requestParameters() {
+    _Parameters requestParameters() {
         if (requestParameters == null) {
-            requestParameters = new HashMap<String, List<String>>();
+            requestParameters = new _Parameters();
         }
         return requestParameters;
     }
 
     /**
-     * Adds a request parameter.
+     * Adds a request parameter. A value for a key starting with
+     * {@value #PROTOCOL_PARAMETER_PREFIX} replaces any previous value of the
+     * key.
      *
      * @param key the key of the request parameter.
      * @param value the value of the request parameter.
@@ -147,18 +301,42 @@ public class OAuthBaseString {//implements Builder<String> {
         if (value == null) {
             throw new NullPointerException("null value");
         }
-        List<String> values = requestParameters().get(key);
-        if (values == null) {
-            values = new ArrayList<String>();
-            requestParameters().put(key, values);
-        }
         if (key.startsWith(PROTOCOL_PARAMETER_PREFIX)) {
-            values.clear();
+            requestParameters().put(key, value);
+        } else {
+            requestParameters().add(key, value);
         }
-        values.add(value);
+        revision++;
         return this;
     }
 
+    // ---------------------------------------------------------------- revision
+    /**
+     * Returns the revision of this base string. The revision changes whenever
+     * the {@code httpMethod}, the {@code baseUri} or any request parameter is
+     * set.
+     *
+     * @return the revision
+     */
+    int revision() {
+        return revision;
+    }
+
+    /**
+     * Returns the value of given protocol parameter set on this instance or
+     * on the template.
+     *
+     * @param key the key of the protocol parameter
+     * @return the value of the protocol parameter or {@code null} if not set
+     */
+    String protocolParameter(final String key) {
+        final String value = requestParameters().first(key);
+        if (value == null && template != null) {
+            return template.protocolParameters().get(key);
+        }
+        return value;
+    }
+
     // ---------------------------------------------------------- queryParameter
     /**
      * Adds a query parameter.
@@ -215,14 +393,17 @@ public class OAuthBaseString {//implements Builder<String> {
      */
     @Deprecated
     Map<String, String> protocolParameters(final Map<String, String> map) {
-        for (final Entry<String, List<String>> entry
-             : requestParameters().entrySet()) {
-            final String key = entry.getKey();
+        if (template != null) {
+            map.putAll(template.protocolParameters());
+        }
+        final _Parameters parameters = requestParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            final String key = parameters.key(i);
             if (!key.startsWith(PROTOCOL_PARAMETER_PREFIX)
                 || key.equals(OAuthConstants.OAUTH_SIGNATURE)) {
                 continue;
             }
-            map.put(key, entry.getValue().get(0));
+            map.put(key, parameters.value(i));
         }
         return map;
     }
@@ -355,5 +536,13 @@ public class OAuthBaseString {//implements Builder<String> {
 
     private String baseUri;
 
-    private Map<String, List<String>> requestParameters;
+    private _Parameters requestParameters;
+
+    private int revision;
+
+    private _Message message;
+
+    private _Message suffixMessage;
+
+    private final OAuthBaseStringTemplate template;
 }
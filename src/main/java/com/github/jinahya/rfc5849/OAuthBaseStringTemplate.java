@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, compiled form of the static part of an
+ * {@link OAuthBaseString} for requests repeatedly made to the same endpoint.
+ * The {@code httpMethod}, the {@code baseUri} and every request parameter
+ * except {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_NONCE},
+ * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TIMESTAMP} and
+ * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_SIGNATURE} are
+ * encoded and sorted once. Instances of this class are safe to be shared by
+ * multiple threads.
+ * <blockquote><pre>{@code
+ * OAuthBaseStringTemplate template = new OAuthBaseString()
+ *         .httpMethod("GET")
+ *         .baseUri("http://photos.example.net/photos")
+ *         .oauthConsumerKey("dpf43f3p2l4k3l03")
+ *         .oauthToken("nnch734d00sl2jdk")
+ *         .compile();
+ * // for each request
+ * OAuthBaseString baseString = template.newBaseString()
+ *         .oauthNonce(nonce)
+ *         .oauthTimestamp(timestamp)
+ *         .queryParameter("file", file);
+ * }</pre></blockquote>
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ * @see OAuthBaseString#compile()
+ */
+public final class OAuthBaseStringTemplate {
+
+    private static boolean dynamic(final String key) {
+        return OAuthConstants.OAUTH_NONCE.equals(key)
+               || OAuthConstants.OAUTH_TIMESTAMP.equals(key)
+               || OAuthConstants.OAUTH_SIGNATURE.equals(key);
+    }
+
+    // ------------------------------------------------------------ constructors
+    /**
+     * Compiles given base string. Changes made to the base string afterwards
+     * are not reflected.
+     *
+     * @param baseString the base string whose {@code httpMethod} and
+     * {@code baseUri} are set.
+     * @throws IllegalStateException if {@code httpMethod} or {@code baseUri}
+     * is not set.
+     */
+    public OAuthBaseStringTemplate(final OAuthBaseString baseString) {
+        super();
+        if (baseString == null) {
+            throw new NullPointerException("null baseString");
+        }
+        prefix = baseString.prefix();
+        try {
+            prefixBytes = prefix.getBytes("US-ASCII");
+        } catch (final UnsupportedEncodingException uee) {
+            throw new RuntimeException(uee.getMessage());
+        }
+        final _Parameters parameters = new _Parameters();
+        final Map<String, String> protocolParameters
+                = new HashMap<String, String>();
+        final OAuthBaseStringTemplate template = baseString.template();
+        if (template != null) {
+            protocolParameters.putAll(template.protocolParameters);
+        }
+        final _Parameters requestParameters = baseString.requestParameters();
+        for (int i = 0; i < requestParameters.size(); i++) {
+            final String key = requestParameters.key(i);
+            if (dynamic(key)) {
+                continue;
+            }
+            final String value = requestParameters.value(i);
+            parameters.add(key, value);
+            if (key.startsWith(OAuthBaseString.PROTOCOL_PARAMETER_PREFIX)) {
+                protocolParameters.put(key, value);
+            }
+        }
+        normalized = new _Normalized(
+                template == null ? null : template.normalized, parameters);
+        this.protocolParameters
+                = Collections.unmodifiableMap(protocolParameters);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Creates a new base string bound to this template. The
+     * {@code httpMethod} and the {@code baseUri} of the new base string can't
+     * be changed and request parameters added to it are merged with those of
+     * this template. A protocol parameter added to the new base string
+     * replaces the one of this template.
+     *
+     * @return a new base string
+     */
+    public OAuthBaseString newBaseString() {
+        return new OAuthBaseString(this);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the leading part of the signature base string.
+     *
+     * @return the leading part of the signature base string
+     * @see OAuthBaseString#prefix()
+     */
+    String prefix() {
+        return prefix;
+    }
+
+    /**
+     * Returns the {@code US-ASCII} bytes of {@link #prefix()}. The returned
+     * array must not be modified.
+     *
+     * @return the bytes of the leading part
+     */
+    byte[] prefixBytes() {
+        return prefixBytes;
+    }
+
+    /**
+     * Returns the normalized static request parameters. The returned instance
+     * must not be modified.
+     *
+     * @return the normalized static request parameters
+     */
+    _Normalized normalized() {
+        return normalized;
+    }
+
+    /**
+     * Returns an unmodifiable map of the static protocol parameters.
+     *
+     * @return the static protocol parameters
+     */
+    Map<String, String> protocolParameters() {
+        return protocolParameters;
+    }
+
+    // -------------------------------------------------------------------------
+    private final String prefix;
+
+    private final byte[] prefixBytes;
+
+    private final _Normalized normalized;
+
+    private final Map<String, String> protocolParameters;
+}
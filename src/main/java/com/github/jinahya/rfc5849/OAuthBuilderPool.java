@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A small pool of builder instances confined to a thread. Instances acquired
+ * from a pool are cleared and should be released to the same pool, on the
+ * same thread, when they are no longer used.
+ * <blockquote><pre>{@code
+ * OAuthBuilderPool pool = OAuthBuilderPool.current();
+ * OAuthBaseString baseString = pool.acquireBaseString();
+ * OAuthSignatureHmacSha1Jca signature = pool.acquireHmacSha1Jca();
+ * OAuthProtocolParameters parameters = pool.acquireProtocolParameters();
+ * try {
+ *     ...
+ *     return parameters.authorizationHeader();
+ * } finally {
+ *     pool.release(parameters);
+ *     pool.release(signature);
+ *     pool.release(baseString);
+ * }
+ * }</pre></blockquote>
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public final class OAuthBuilderPool {
+
+    /**
+     * The maximum number of idle instances kept for each kind of builders.
+     */
+    static final int CAPACITY = 4;
+
+    private static final ThreadLocal<OAuthBuilderPool> POOLS
+            = new ThreadLocal<OAuthBuilderPool>() {
+        @Override
+        protected OAuthBuilderPool initialValue() {
+            return new OAuthBuilderPool();
+        }
+    };
+
+    /**
+     * Returns the pool confined to current thread.
+     *
+     * @return the pool of current thread.
+     */
+    public static OAuthBuilderPool current() {
+        return POOLS.get();
+    }
+
+    private static <T> T pop(final List<T> idles) {
+        return idles.isEmpty() ? null : idles.remove(idles.size() - 1);
+    }
+
+    private static <T> void push(final List<T> idles, final T instance) {
+        if (idles.size() < CAPACITY && !idles.contains(instance)) {
+            idles.add(instance);
+        }
+    }
+
+    // ------------------------------------------------------------ constructors
+    private OAuthBuilderPool() {
+        super();
+    }
+
+    // -------------------------------------------------------- OAuthBaseString
+    /**
+     * Acquires a cleared base string.
+     *
+     * @return a base string
+     */
+    public OAuthBaseString acquireBaseString() {
+        final OAuthBaseString instance = pop(baseStrings);
+        return instance == null ? new OAuthBaseString() : instance;
+    }
+
+    /**
+     * Clears given base string and keeps it for reuse. Instances of
+     * subclasses, or those bound to templates, are not kept.
+     *
+     * @param instance the base string to release
+     */
+    public void release(final OAuthBaseString instance) {
+        if (instance == null) {
+            throw new NullPointerException("null instance");
+        }
+        if (instance.getClass() != OAuthBaseString.class
+            || instance.template() != null) {
+            return;
+        }
+        push(baseStrings, instance.clear());
+    }
+
+    // ------------------------------------------------- OAuthSignatureHmacSha1
+    /**
+     * Acquires a cleared {@link OAuthSignatureHmacSha1Jca}. A released
+     * instance keeps the options it was released with.
+     *
+     * @return a signature
+     */
+    public OAuthSignatureHmacSha1Jca acquireHmacSha1Jca() {
+        final OAuthSignatureHmacSha1Jca instance = pop(hmacSha1Jcas);
+        return instance == null ? new OAuthSignatureHmacSha1Jca() : instance;
+    }
+
+    /**
+     * Acquires a cleared {@link OAuthSignatureHmacSha1Bc}. A released
+     * instance keeps the options it was released with.
+     *
+     * @return a signature
+     */
+    public OAuthSignatureHmacSha1Bc acquireHmacSha1Bc() {
+        final OAuthSignatureHmacSha1Bc instance = pop(hmacSha1Bcs);
+        return instance == null ? new OAuthSignatureHmacSha1Bc() : instance;
+    }
+
+    /**
+     * Clears given signature and keeps it for reuse. Clearing drops the
+     * secrets, the base string and any engine keyed with the secrets while
+     * the {@code keyCache}, {@code prefixCached} and {@code engineReused}
+     * options are kept so that the cached key states stay in use by the next
+     * acquirer. Instances of classes other than
+     * {@link OAuthSignatureHmacSha1Jca} and {@link OAuthSignatureHmacSha1Bc}
+     * are not kept.
+     *
+     * @param instance the signature to release
+     */
+    public void release(final OAuthSignatureHmacSha1 instance) {
+        if (instance == null) {
+            throw new NullPointerException("null instance");
+        }
+        final Class<?> type = instance.getClass();
+        if (type != OAuthSignatureHmacSha1Jca.class
+            && type != OAuthSignatureHmacSha1Bc.class) {
+            return;
+        }
+        instance.clear();
+        if (type == OAuthSignatureHmacSha1Jca.class) {
+            push(hmacSha1Jcas, (OAuthSignatureHmacSha1Jca) instance);
+        } else {
+            push(hmacSha1Bcs, (OAuthSignatureHmacSha1Bc) instance);
+        }
+    }
+
+    // ------------------------------------------------- OAuthProtocolParameters
+    /**
+     * Acquires a cleared protocol parameters builder.
+     *
+     * @return a protocol parameters builder
+     */
+    public OAuthProtocolParameters acquireProtocolParameters() {
+        final OAuthProtocolParameters instance = pop(protocolParameters);
+        return instance == null ? new OAuthProtocolParameters() : instance;
+    }
+
+    /**
+     * Clears given protocol parameters builder and keeps it for reuse.
+     * Instances of subclasses are not kept.
+     *
+     * @param instance the protocol parameters builder to release
+     */
+    public void release(final OAuthProtocolParameters instance) {
+        if (instance == null) {
+            throw new NullPointerException("null instance");
+        }
+        if (instance.getClass() != OAuthProtocolParameters.class) {
+            return;
+        }
+        push(protocolParameters, instance.clear());
+    }
+
+    // -------------------------------------------------------------------------
+    private final List<OAuthBaseString> baseStrings
+            = new ArrayList<OAuthBaseString>(CAPACITY);
+
+    private final List<OAuthSignatureHmacSha1Jca> hmacSha1Jcas
+            = new ArrayList<OAuthSignatureHmacSha1Jca>(CAPACITY);
+
+    private final List<OAuthSignatureHmacSha1Bc> hmacSha1Bcs
+            = new ArrayList<OAuthSignatureHmacSha1Bc>(CAPACITY);
+
+    private final List<OAuthProtocolParameters> protocolParameters
+            = new ArrayList<OAuthProtocolParameters>(CAPACITY);
+}
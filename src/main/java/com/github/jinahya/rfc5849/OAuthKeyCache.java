@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, concurrent cache for keyed signature engine states. An instance
+ * of this class can be shared by multiple signatures and threads. When the
+ * number of entries exceeds the capacity, entries are evicted in the order
+ * they were put, first in first out, regardless of how recently they were
+ * looked up.
+ * <p>
+ * Keys of entries for HMAC-SHA1 contain the secrets, just as the cached
+ * states are equivalent to the secrets. An instance should be protected as
+ * the secrets are.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ * @see OAuthSignatureHmacSha1#keyCache(OAuthKeyCache)
+ * @see OAuthSignatureRsaSha1#publicKeyCache(OAuthKeyCache)
+ */
+public class OAuthKeyCache {
+
+    /**
+     * Creates a cache key from given parts.
+     *
+     * @param parts the parts of the key.
+     * @return a cache key.
+     */
+    static Object key(final Object... parts) {
+        return Arrays.asList(parts);
+    }
+
+    // ------------------------------------------------------------ constructors
+    /**
+     * Creates a new instance with given capacity.
+     *
+     * @param capacity the maximum number of entries.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    public OAuthKeyCache(final int capacity) {
+        super();
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "capacity(" + capacity + ") <= 0");
+        }
+        this.capacity = capacity;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the value mapped to given key.
+     *
+     * @param key the key
+     * @return the value mapped to the {@code key} or {@code null} if not
+     * cached.
+     */
+    Object get(final Object key) {
+        final Object value = map.get(key);
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Maps given value to given key unless the key is already mapped and
+     * evicts the eldest entries if the capacity exceeded.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void put(final Object key, final Object value) {
+        if (map.putIfAbsent(key, value) != null) {
+            return;
+        }
+        keys.offer(key);
+        size.incrementAndGet();
+        while (size.get() > capacity) {
+            final Object eldest = keys.poll();
+            if (eldest == null) {
+                break;
+            }
+            if (map.remove(eldest) != null) {
+                size.decrementAndGet();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries. Counters are not affected.
+     */
+    public void clear() {
+        for (Object key; (key = keys.poll()) != null;) {
+            if (map.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- capacity
+    /**
+     * Returns the maximum number of entries.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    // -------------------------------------------------------------------- size
+    /**
+     * Returns the current number of entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    // ---------------------------------------------------------------- counters
+    /**
+     * Returns the number of lookups found a cached value.
+     *
+     * @return the number of hits.
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups found no cached value.
+     *
+     * @return the number of misses.
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of entries evicted due to the capacity.
+     *
+     * @return the number of evictions.
+     */
+    public long evictions() {
+        return evictions.get();
+    }
+
+    // -------------------------------------------------------------------------
+    private final int capacity;
+
+    private final ConcurrentMap<Object, Object> map
+            = new ConcurrentHashMap<Object, Object>();
+
+    private final Queue<Object> keys = new ConcurrentLinkedQueue<Object>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+}
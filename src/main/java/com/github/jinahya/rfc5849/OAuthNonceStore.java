@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+/**
+ * An interface for servers recording nonces of received requests in order to
+ * reject replayed ones. Implementations must be safe to be used by multiple
+ * threads.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ * @see <a href="https://tools.ietf.org/html/rfc5849#section-3.3">3.3. Nonce and
+ * Timestamp (RFC 5849)</a>
+ */
+public interface OAuthNonceStore {
+
+    /**
+     * Records given combination of credentials, timestamp and nonce unless
+     * the same combination is already recorded or the timestamp is not
+     * acceptable.
+     *
+     * @param consumerKey the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_CONSUMER_KEY}
+     * @param token the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TOKEN}; may be
+     * {@code null}
+     * @param timestamp the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TIMESTAMP}
+     * @param nonce the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_NONCE}
+     * @return {@code true} if recorded; {@code false} if the request should
+     * be rejected.
+     */
+    boolean add(String consumerKey, String token, long timestamp,
+                String nonce);
+
+    /**
+     * Records given combination of credentials, timestamp and nonce without
+     * checking whether the same combination is already recorded. The caller
+     * must know that the combination is new, for example from a filter which
+     * has definitely not seen it; otherwise a replayed combination may be
+     * accepted. The timestamp is still checked. A combination put is
+     * rejected by following invocations of
+     * {@link #add(String, String, long, String)}.
+     *
+     * @param consumerKey the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_CONSUMER_KEY}
+     * @param token the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TOKEN}; may be
+     * {@code null}
+     * @param timestamp the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TIMESTAMP}
+     * @param nonce the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_NONCE}
+     * @return {@code true} if recorded; {@code false} if the combination
+     * could not be recorded.
+     * @see BloomOAuthNonceStore
+     */
+    boolean put(String consumerKey, String token, long timestamp, String nonce);
+}
@@ -15,10 +15,12 @@
  */
 package com.github.jinahya.rfc5849;
 
+import static com.github.jinahya.rfc5849._Base64.encodeBase64Formurl;
+import static com.github.jinahya.rfc5849._Base64.encodeBase64Percent;
 import static com.github.jinahya.rfc5849._Formurl.encodeFormurl;
 import static com.github.jinahya.rfc5849._Percent.encodePercent;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
@@ -34,7 +36,21 @@ public class OAuthProtocolParameters {
 
     public static final String AUTH_SCHEME = "OAuth";
 
-    private static final String REALM = "realm";
+    // ------------------------------------------------------------------- clear
+    /**
+     * Clears the {@code realm}, the {@code signature} and the memoized
+     * protocol parameters of this instance so that it can be reused for
+     * another request. The {@link #signatureCount()} is not reset.
+     *
+     * @return this instance
+     */
+    public OAuthProtocolParameters clear() {
+        realm = null;
+        signature = null;
+        protocolParameters = null;
+        memoizedBaseString = null;
+        return this;
+    }
 
     // ------------------------------------------------------------------- realm
     /**
@@ -49,14 +65,53 @@ public class OAuthProtocolParameters {
     }
 
     // -------------------------------------------------------------------------
+    /**
+     * Percent-encodes given protocol parameter value and appends the result
+     * to given builder.
+     *
+     * @param value the value; either a {@code String} or the raw bytes of the
+     * signature which is Base64-encoded and percent-encoded in a single pass.
+     * @param builder the builder
+     */
+    private static void encodePercentValue(final Object value,
+                                           final StringBuilder builder) {
+        if (value instanceof byte[]) {
+            encodeBase64Percent((byte[]) value, builder);
+            return;
+        }
+        encodePercent((String) value, builder);
+    }
+
+    /**
+     * Form-urlencodes given protocol parameter value and appends the result to
+     * given builder.
+     *
+     * @param value the value; either a {@code String} or the raw bytes of the
+     * signature which is Base64-encoded and form-urlencoded in a single pass.
+     * @param builder the builder
+     */
+    private static void encodeFormurlValue(final Object value,
+                                           final StringBuilder builder) {
+        if (value instanceof byte[]) {
+            encodeBase64Formurl((byte[]) value, builder);
+            return;
+        }
+        encodeFormurl((String) value, builder);
+    }
+
     /**
      * Returns all protocol parameters including an entry for
-     * {@link OAuthConstants#OAUTH_SIGNATURE}.
+     * {@link OAuthConstants#OAUTH_SIGNATURE}. The value for
+     * {@link OAuthConstants#OAUTH_SIGNATURE} is the raw bytes of the signature
+     * if the signature method produces binary values; a {@code String}
+     * otherwise. The result is memoized and reused until the signature, or
+     * the base string of the signature, is modified.
      *
      * @return all protocol parameters
      * @throws Exception if an error occurs.
+     * @see OAuthSignature#getBytes()
      */
-    private Map<String, String> protocolParameters() throws Exception {
+    private Map<String, Object> protocolParameters() throws Exception {
         if (signature == null) {
             throw new IllegalStateException("no signature set");
         }
@@ -64,25 +119,35 @@ public class OAuthProtocolParameters {
         if (baseString == null) {
             throw new IllegalStateException("no baseString set on signature");
         }
-        final Map<String, String> protocolParameters
-                = new TreeMap<String, String>();
-        final Map<String, List<String>> requestParameters
-                = baseString.requestParameters();
-        for (final Iterator<Entry<String, List<String>>> i
-                = requestParameters.entrySet().iterator(); i.hasNext();) {
-            final Entry<String, List<String>> entry = i.next();
-            final String key = entry.getKey();
-            if (!key.startsWith(OAuthBaseString.PROTOCOL_PARAMETER_PREFIX)) {
-                continue;
-            }
-            if (key.equals(OAuthConstants.OAUTH_SIGNATURE)) {
-                i.remove();
-                continue;
+        if (protocolParameters != null
+            && memoizedBaseString == baseString
+            && memoizedBaseStringRevision == baseString.revision()
+            && memoizedSignatureRevision == signature.revision()) {
+            return protocolParameters;
+        }
+        final Map<String, Object> protocolParameters
+                = new TreeMap<String, Object>();
+        final OAuthBaseStringTemplate template = baseString.template();
+        if (template != null) {
+            protocolParameters.putAll(template.protocolParameters());
+        }
+        final _Parameters requestParameters = baseString.requestParameters();
+        requestParameters.remove(OAuthConstants.OAUTH_SIGNATURE);
+        for (int i = 0; i < requestParameters.size(); i++) {
+            final String key = requestParameters.key(i);
+            if (key.startsWith(OAuthBaseString.PROTOCOL_PARAMETER_PREFIX)) {
+                protocolParameters.put(key, requestParameters.value(i));
             }
-            protocolParameters.put(key, entry.getValue().get(0));
         }
-        final String oauthSignature = signature.get();
-        protocolParameters.put(OAuthConstants.OAUTH_SIGNATURE, oauthSignature);
+        final byte[] signatureBytes = signature.getBytes();
+        protocolParameters.put(
+                OAuthConstants.OAUTH_SIGNATURE,
+                signatureBytes == null ? signature.get() : signatureBytes);
+        signatureCount++;
+        this.protocolParameters = protocolParameters;
+        memoizedBaseString = baseString;
+        memoizedBaseStringRevision = baseString.revision();
+        memoizedSignatureRevision = signature.revision();
         return protocolParameters;
     }
 
@@ -95,42 +160,58 @@ public class OAuthProtocolParameters {
      * Authorization Header (RFC 5849)</a>
      */
     public String authorizationHeader() throws Exception {
-        final Map<String, String> protocolParameters = protocolParameters();
-        final StringBuilder builder = new StringBuilder(AUTH_SCHEME);
-        {
-            if (realm != null) {
-                builder
-                        .append(" ")
-                        .append(REALM)
-                        .append("=\"")
-                        .append(realm)
-                        .append("\"");
-            }
-            final Iterator<Entry<String, String>> entries
-                    = protocolParameters.entrySet().iterator();
-            if (entries.hasNext()) {
-                if (realm != null) {
-                    builder.append(",");
-                }
-                final Entry<String, String> entry = entries.next();
-                builder
-                        .append(" ")
-                        .append(encodePercent(entry.getKey()))
-                        .append("=\"")
-                        .append(encodePercent(entry.getValue()))
-                        .append("\"");
-            }
-            while (entries.hasNext()) {
-                final Entry<String, String> entry = entries.next();
-                builder
-                        .append(", ")
-                        .append(encodePercent(entry.getKey()))
-                        .append("=\"")
-                        .append(encodePercent(entry.getValue()))
-                        .append("\"");
-            }
+        return _Header.toString(realm, protocolParameters());
+    }
+
+    /**
+     * Returns the number of characters of the value of
+     * {@link #authorizationHeader()}.
+     *
+     * @return the length of the Authorization Header
+     * @throws Exception if an error occurs.
+     */
+    public int authorizationHeaderLength() throws Exception {
+        return _Header.length(realm, protocolParameters());
+    }
+
+    /**
+     * Puts the {@code US-ASCII} bytes of the value of
+     * {@link #authorizationHeader()} to given buffer. Nothing is put if the
+     * buffer doesn't have enough room.
+     *
+     * @param target the buffer
+     * @return the number of bytes put.
+     * @throws java.nio.BufferOverflowException if the {@code target} doesn't
+     * have enough room.
+     * @throws Exception if an error occurs.
+     * @see #authorizationHeaderLength()
+     */
+    public int authorizationHeader(final ByteBuffer target) throws Exception {
+        if (target == null) {
+            throw new NullPointerException("null target");
         }
-        return builder.toString();
+        return _Header.write(realm, protocolParameters(), target);
+    }
+
+    /**
+     * Sets the {@code US-ASCII} bytes of the value of
+     * {@link #authorizationHeader()} to given array starting at given offset.
+     * Nothing is set if the array doesn't have enough room.
+     *
+     * @param target the array
+     * @param offset the offset in {@code target}
+     * @return the number of bytes set.
+     * @throws IndexOutOfBoundsException if the {@code target} doesn't have
+     * enough room.
+     * @throws Exception if an error occurs.
+     * @see #authorizationHeaderLength()
+     */
+    public int authorizationHeader(final byte[] target, final int offset)
+            throws Exception {
+        if (target == null) {
+            throw new NullPointerException("null target");
+        }
+        return _Header.write(realm, protocolParameters(), target, offset);
     }
 
     /**
@@ -142,25 +223,20 @@ public class OAuthProtocolParameters {
      * Form-Encoded Body (RFC 5849)</a>
      */
     public String formEncodedBody() throws Exception {
-        final Map<String, String> protocolParameters = protocolParameters();
+        final Map<String, Object> protocolParameters = protocolParameters();
         final StringBuilder builder = new StringBuilder();
         {
-            final Iterator<Entry<String, String>> entries
+            final Iterator<Entry<String, Object>> entries
                     = protocolParameters.entrySet().iterator();
             if (entries.hasNext()) {
-                final Entry<String, String> entry = entries.next();
-                builder
-                        .append(encodeFormurl(entry.getKey()))
-                        .append("=")
-                        .append(encodeFormurl(entry.getValue()));
+                final Entry<String, Object> entry = entries.next();
+                encodeFormurl(entry.getKey(), builder);
+                encodeFormurlValue(entry.getValue(), builder.append("="));
             }
             while (entries.hasNext()) {
-                final Entry<String, String> entry = entries.next();
-                builder
-                        .append("&")
-                        .append(encodeFormurl(entry.getKey()))
-                        .append("=")
-                        .append(encodeFormurl(entry.getValue()));
+                final Entry<String, Object> entry = entries.next();
+                encodeFormurl(entry.getKey(), builder.append("&"));
+                encodeFormurlValue(entry.getValue(), builder.append("="));
             }
         }
         return builder.toString();
@@ -175,25 +251,20 @@ public class OAuthProtocolParameters {
      * Request URI Query (RFC 5849)</a>
      */
     public String requestUriQuery() throws Exception {
-        final Map<String, String> protocolParameters = protocolParameters();
+        final Map<String, Object> protocolParameters = protocolParameters();
         final StringBuilder builder = new StringBuilder();
         {
-            final Iterator<Entry<String, String>> entries
+            final Iterator<Entry<String, Object>> entries
                     = protocolParameters.entrySet().iterator();
             if (entries.hasNext()) {
-                final Entry<String, String> entry = entries.next();
-                builder
-                        .append(encodePercent(entry.getKey()))
-                        .append("=")
-                        .append(encodePercent(entry.getValue()));
+                final Entry<String, Object> entry = entries.next();
+                encodePercent(entry.getKey(), builder);
+                encodePercentValue(entry.getValue(), builder.append("="));
             }
             while (entries.hasNext()) {
-                final Entry<String, String> entry = entries.next();
-                builder
-                        .append("&")
-                        .append(encodePercent(entry.getKey()))
-                        .append("=")
-                        .append(encodePercent(entry.getValue()));
+                final Entry<String, Object> entry = entries.next();
+                encodePercent(entry.getKey(), builder.append("&"));
+                encodePercentValue(entry.getValue(), builder.append("="));
             }
         }
         return builder.toString();
@@ -208,11 +279,38 @@ public class OAuthProtocolParameters {
      */
     public OAuthProtocolParameters signature(final OAuthSignature signature) {
         this.signature = signature;
+        protocolParameters = null;
         return this;
     }
 
+    // ---------------------------------------------------------- signatureCount
+    /**
+     * Returns the number of times this instance has computed a signature. A
+     * signature is computed once and shared by {@link #authorizationHeader()},
+     * {@link #formEncodedBody()} and {@link #requestUriQuery()} as long as
+     * neither the signature nor its base string is modified.
+     *
+     * @return the number of signature computations
+     */
+    public long signatureCount() {
+        return signatureCount;
+    }
+
     // -------------------------------------------------------------------------
     private String realm;
 
     private OAuthSignature signature;
+
+    /**
+     * The memoized protocol parameters; {@code null} if not computed yet.
+     */
+    private Map<String, Object> protocolParameters;
+
+    private OAuthBaseString memoizedBaseString;
+
+    private int memoizedBaseStringRevision;
+
+    private int memoizedSignatureRevision;
+
+    private long signatureCount;
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+/**
+ * An interface for resolving the public keys of consumers which sign requests
+ * using {@link OAuthConstants#SIGNATURE_METHOD_RSA_SHA1}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ * @see OAuthSignatureRsaSha1#verify(String)
+ */
+public interface OAuthPublicKeyResolver {
+
+    /**
+     * Resolves the public key of given consumer.
+     *
+     * @param consumerKey the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_CONSUMER_KEY}
+     * @return the DER encoded X.509 certificate, or the DER encoded
+     * {@code SubjectPublicKeyInfo}, of the consumer's public key;
+     * {@code null} if the consumer is unknown.
+     * @throws Exception if an error occurs.
+     */
+    byte[] resolve(String consumerKey) throws Exception;
+}
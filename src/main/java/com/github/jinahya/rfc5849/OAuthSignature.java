@@ -44,6 +44,18 @@ public abstract class OAuthSignature {
      */
     public abstract String get() throws Exception;
 
+    /**
+     * Generates the raw bytes of the signature value whose Base64-encoded form
+     * is the value of {@link #get()}. This method returns {@code null} if the
+     * signature method doesn't produce binary values.
+     *
+     * @return the raw bytes of the signature value or {@code null}
+     * @throws Exception if an error occurs.
+     */
+    byte[] getBytes() throws Exception {
+        return null;
+    }
+
     // --------------------------------------------------------- signatureMethod
     /**
      * Returns signature method.
@@ -77,11 +89,48 @@ public abstract class OAuthSignature {
         }
         this.baseString = baseString;
         this.baseString.oauthSignatureMethod(signatureMethod);
+        modified();
         return this;
     }
 
+    // ------------------------------------------------------------------- clear
+    /**
+     * Clears the per-request state of this signature, such as the
+     * {@code baseString}, so that it can be reused for another request.
+     * Options which don't depend on requests are kept.
+     *
+     * @return this instance
+     */
+    public OAuthSignature clear() {
+        baseString = null;
+        modified();
+        return this;
+    }
+
+    // ---------------------------------------------------------------- revision
+    /**
+     * Returns the revision of this signature. The revision changes whenever
+     * this signature is modified in a way which may change the value of
+     * {@link #get()} for the same {@code baseString}.
+     *
+     * @return the revision
+     */
+    int revision() {
+        return revision;
+    }
+
+    /**
+     * Increments the revision of this signature. Subclasses should invoke
+     * this method whenever they change their signing state.
+     */
+    void modified() {
+        revision++;
+    }
+
     // -------------------------------------------------------------------------
     private final String signatureMethod;
 
     private OAuthBaseString baseString;
+
+    private int revision;
 }
@@ -15,6 +15,7 @@
  */
 package com.github.jinahya.rfc5849;
 
+import static com.github.jinahya.rfc5849._Base64.decodeBase64;
 import static com.github.jinahya.rfc5849._Base64.encodeBase64ToString;
 
 /**
@@ -27,6 +28,11 @@ import static com.github.jinahya.rfc5849._Base64.encodeBase64ToString;
  */
 public abstract class OAuthSignatureHmacSha1 extends OAuthSignaturePlaintext {
 
+    /**
+     * The number of bytes of a MAC.
+     */
+    static final int MAC_LENGTH = 20;
+
     /**
      * Creates a new instance.
      */
@@ -37,18 +43,204 @@ public abstract class OAuthSignatureHmacSha1 extends OAuthSignaturePlaintext {
     // -------------------------------------------------------------------------
     @Override
     public String get() throws Exception {
+        if (signed == null) {
+            signed = new byte[MAC_LENGTH];
+        }
+        getBytes(signed);
+        return encodeBase64ToString(signed);
+    }
+
+    @Override
+    byte[] getBytes() throws Exception {
+        final byte[] output = new byte[MAC_LENGTH];
+        getBytes(output);
+        return output;
+    }
+
+    /**
+     * Computes the MAC of current base string into given array.
+     *
+     * @param output the array of {@value #MAC_LENGTH} bytes to which the MAC
+     * is written
+     * @throws Exception if an error occurs.
+     */
+    private void getBytes(final byte[] output) throws Exception {
         final OAuthBaseString baseString = baseString();
         if (baseString == null) {
             throw new IllegalStateException("no baseString set");
         }
-        final String keyString = super.get(); // consumerSecret&tokenSecret
-        final byte[] keyBytes = keyString.getBytes("ISO-8859-1");
-        final byte[] baseBytes = baseString.get().getBytes("ISO-8859-1");
-        final byte[] signature = get(keyBytes, baseBytes);
-        return encodeBase64ToString(signature);
+        final String keyString = keyString(); // consumerSecret&tokenSecret
+        if (keyCache == null) {
+            get(keyBytes(keyString), baseString.message(), output);
+        } else if (prefixCached) {
+            final String prefix = baseString.prefix();
+            final Object key = OAuthKeyCache.key(getClass(), keyString, prefix);
+            Object keyState = keyCache.get(key);
+            if (keyState == null) {
+                keyState = keyState(keyString.getBytes("ISO-8859-1"),
+                                    prefix.getBytes("ISO-8859-1"));
+                keyCache.put(key, keyState);
+            }
+            get(keyState, baseString.suffixMessage(), output);
+        } else {
+            final Object key = OAuthKeyCache.key(getClass(), keyString);
+            Object keyState = keyCache.get(key);
+            if (keyState == null) {
+                keyState = keyState(keyString.getBytes("ISO-8859-1"),
+                                    new byte[0]);
+                keyCache.put(key, keyState);
+            }
+            get(keyState, baseString.message(), output);
+        }
+    }
+
+    /**
+     * Returns the {@code ISO-8859-1} encoded bytes of given key string. The
+     * bytes are kept, and reused for the same key string instance, so that
+     * a reused engine can tell the key unchanged without encoding it again.
+     */
+    private byte[] keyBytes(final String keyString) throws Exception {
+        if (keyString != keyBytesString) {
+            keyBytes = keyString.getBytes("ISO-8859-1");
+            keyBytesString = keyString;
+        }
+        return keyBytes;
+    }
+
+    /**
+     * Computes the MAC of given base bytes with given key bytes.
+     *
+     * @param keyBytes the key bytes
+     * @param baseBytes the base bytes
+     * @return the MAC
+     * @throws Exception if an error occurs.
+     */
+    final byte[] get(final byte[] keyBytes, final byte[] baseBytes)
+            throws Exception {
+        return get(keyBytes, _Message.of(baseBytes));
+    }
+
+    /**
+     * Computes the MAC of given message with given key bytes.
+     *
+     * @param keyBytes the key bytes
+     * @param message the message
+     * @return the MAC
+     * @throws Exception if an error occurs.
+     */
+    final byte[] get(final byte[] keyBytes, final _Message message)
+            throws Exception {
+        final byte[] output = new byte[MAC_LENGTH];
+        get(keyBytes, message, output);
+        return output;
+    }
+
+    /**
+     * Computes the MAC of given message with given key bytes into given
+     * array. The message is written directly to the underlying engine.
+     *
+     * @param keyBytes the key bytes
+     * @param message the message
+     * @param output the array of {@value #MAC_LENGTH} bytes to which the MAC
+     * is written
+     * @throws Exception if an error occurs.
+     */
+    abstract void get(byte[] keyBytes, _Message message, byte[] output)
+            throws Exception;
+
+    /**
+     * Prepares a keyed state, which already absorbed given prefix bytes, that
+     * can be cached and shared by multiple threads. The returned value must
+     * not be modified by {@link #get(java.lang.Object, _Message, byte[])}.
+     *
+     * @param keyBytes the key bytes
+     * @param prefixBytes the leading bytes of the message to absorb; may be
+     * empty.
+     * @return a keyed state
+     * @throws Exception if an error occurs.
+     */
+    abstract Object keyState(byte[] keyBytes, byte[] prefixBytes)
+            throws Exception;
+
+    /**
+     * Computes the MAC of given message with given keyed state prepared by
+     * {@link #keyState(byte[], byte[])}.
+     *
+     * @param keyState the keyed state
+     * @param message the remaining part of the message
+     * @return the MAC
+     * @throws Exception if an error occurs.
+     */
+    final byte[] get(final Object keyState, final _Message message)
+            throws Exception {
+        final byte[] output = new byte[MAC_LENGTH];
+        get(keyState, message, output);
+        return output;
+    }
+
+    /**
+     * Computes the MAC of given message with given keyed state prepared by
+     * {@link #keyState(byte[], byte[])} into given array.
+     *
+     * @param keyState the keyed state
+     * @param message the remaining part of the message
+     * @param output the array of {@value #MAC_LENGTH} bytes to which the MAC
+     * is written
+     * @throws Exception if an error occurs.
+     */
+    abstract void get(Object keyState, _Message message, byte[] output)
+            throws Exception;
+
+    // ------------------------------------------------------------------ verify
+    /**
+     * Verifies given signature against the one of current base string. The
+     * received value is decoded into, and the MAC is computed into, buffers
+     * kept by this instance, and the two are compared in constant time.
+     *
+     * @param signature the received, percent-decoded value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_SIGNATURE}.
+     * @return {@code true} if {@code signature} matches; {@code false} if not
+     * or if {@code signature} is not a Base64 encoded MAC.
+     * @throws Exception if an error occurs.
+     */
+    public boolean verify(final String signature) throws Exception {
+        if (signature == null) {
+            throw new NullPointerException("null signature");
+        }
+        if (received == null) {
+            received = new byte[MAC_LENGTH];
+            computed = new byte[MAC_LENGTH];
+        }
+        // a MAC encodes to 27 characters followed by exactly one '='; any
+        // other padding decodes to a length other than the MAC_LENGTH
+        final int length = signature.length();
+        if (length != _Base64.encodedLength(MAC_LENGTH)
+            || signature.charAt(length - 1) != '='
+            || signature.charAt(length - 2) == '=') {
+            return false;
+        }
+        try {
+            if (decodeBase64(signature, received, 0) != MAC_LENGTH) {
+                return false;
+            }
+        } catch (final IllegalArgumentException iae) {
+            return false;
+        }
+        getBytes(computed);
+        return equals(received, computed);
     }
 
-    abstract byte[] get(byte[] keyBytes, byte[] baseBytes) throws Exception;
+    /**
+     * Compares two arrays of the same length in a time which depends only on
+     * the length.
+     */
+    private static boolean equals(final byte[] a, final byte[] b) {
+        int difference = 0;
+        for (int i = 0; i < a.length; i++) {
+            difference |= a[i] ^ b[i];
+        }
+        return difference == 0;
+    }
 
     // -------------------------------------------------------------- baseString
     @Override
@@ -56,6 +248,20 @@ public abstract class OAuthSignatureHmacSha1 extends OAuthSignaturePlaintext {
         return (OAuthSignatureHmacSha1) super.baseString(baseString);
     }
 
+    // ------------------------------------------------------------------- clear
+    /**
+     * {@inheritDoc} The {@code keyCache}, {@code prefixCached} and
+     * {@code engineReused} options are kept.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureHmacSha1 clear() {
+        keyBytes = null;
+        keyBytesString = null;
+        return (OAuthSignatureHmacSha1) super.clear();
+    }
+
     // ---------------------------------------------------------- consumerSecret
     @Override
     public OAuthSignatureHmacSha1 consumerSecret(final String consumerSecret) {
@@ -67,4 +273,92 @@ public abstract class OAuthSignatureHmacSha1 extends OAuthSignaturePlaintext {
     public OAuthSignatureHmacSha1 tokenSecret(final String tokenSecret) {
         return (OAuthSignatureHmacSha1) super.tokenSecret(tokenSecret);
     }
+
+    // ---------------------------------------------------------------- keyCache
+    /**
+     * Sets a cache for keyed states. When set, the key schedule for each
+     * pair of {@code consumerSecret} and {@code tokenSecret} is computed once
+     * and only the signature base string is hashed for each signature. The
+     * states are looked up by the secrets themselves.
+     *
+     * @param keyCache the cache; {@code null} for no caching.
+     * @return this instance
+     */
+    public OAuthSignatureHmacSha1 keyCache(final OAuthKeyCache keyCache) {
+        this.keyCache = keyCache;
+        return this;
+    }
+
+    // ------------------------------------------------------------ prefixCached
+    /**
+     * Sets whether the leading part of the signature base string, which
+     * consists of the {@code httpMethod} and the {@code baseUri}, should be
+     * absorbed into the cached keyed states. When set, only the normalized
+     * request parameters are hashed for each signature of the same endpoint.
+     * This option takes effect only with a {@link #keyCache(OAuthKeyCache)
+     * keyCache}.
+     *
+     * @param prefixCached {@code true} for caching the leading part;
+     * {@code false} otherwise.
+     * @return this instance
+     */
+    public OAuthSignatureHmacSha1 prefixCached(final boolean prefixCached) {
+        this.prefixCached = prefixCached;
+        return this;
+    }
+
+    // ------------------------------------------------------------ engineReused
+    /**
+     * Returns whether this signature reuses engines.
+     *
+     * @return {@code true} if engines are reused; {@code false} otherwise
+     */
+    boolean engineReused() {
+        return engineReused;
+    }
+
+    /**
+     * Sets whether this signature reuses an engine instead of creating a new
+     * one for each invocation of {@link #get()}. Reused engines are
+     * re-initialized as required for the key of each invocation.
+     *
+     * @param engineReused {@code true} for reusing; {@code false} otherwise
+     * @return this instance
+     */
+    public OAuthSignatureHmacSha1 engineReused(final boolean engineReused) {
+        this.engineReused = engineReused;
+        return this;
+    }
+
+    // -------------------------------------------------------------------------
+    private boolean engineReused;
+
+    private OAuthKeyCache keyCache;
+
+    private boolean prefixCached;
+
+    /**
+     * The buffer for decoded received signatures.
+     */
+    private byte[] received;
+
+    /**
+     * The buffer for computed MACs.
+     */
+    private byte[] computed;
+
+    /**
+     * The buffer for MACs encoded by {@link #get()}.
+     */
+    private byte[] signed;
+
+    /**
+     * The encoded bytes of {@link #keyBytesString}.
+     */
+    private byte[] keyBytes;
+
+    /**
+     * The key string {@link #keyBytes} are encoded from.
+     */
+    private String keyBytesString;
 }
@@ -15,6 +15,9 @@
  */
 package com.github.jinahya.rfc5849;
 
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.Mac;
 import org.bouncycastle.crypto.digests.SHA1Digest;
 import org.bouncycastle.crypto.macs.HMac;
@@ -30,13 +33,169 @@ import org.bouncycastle.crypto.params.KeyParameter;
  */
 public class OAuthSignatureHmacSha1Bc extends OAuthSignatureHmacSha1 {
 
+    private static final byte IPAD = 0x36;
+
+    private static final byte OPAD = 0x5C;
+
+    /**
+     * Returns an output stream which updates given digest.
+     *
+     * @param digest the digest to update
+     * @return an output stream
+     */
+    static OutputStream stream(final Digest digest) {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) {
+                digest.update((byte) b);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                digest.update(b, off, len);
+            }
+        };
+    }
+
+    /**
+     * Returns an output stream which updates given MAC.
+     *
+     * @param mac the MAC to update
+     * @return an output stream
+     */
+    static OutputStream stream(final Mac mac) {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) {
+                mac.update((byte) b);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                mac.update(b, off, len);
+            }
+        };
+    }
+
+    // -------------------------------------------------------------------------
     @Override
-    byte[] get(final byte[] keyBytes, final byte[] baseBytes) throws Exception {
+    void get(final byte[] keyBytes, final _Message message,
+             final byte[] output)
+            throws Exception {
+        if (engineReused()) {
+            if (mac == null) {
+                mac = new HMac(new SHA1Digest());
+                stream = stream(mac);
+            }
+            if (!Arrays.equals(key, keyBytes)) {
+                key = null;
+                mac.init(new KeyParameter(keyBytes));
+                key = keyBytes;
+            }
+            try {
+                message.write(stream);
+                mac.doFinal(output, 0); // resets with the same key
+            } catch (final Exception e) {
+                mac.reset();
+                throw e;
+            }
+            return;
+        }
         final Mac mac = new HMac(new SHA1Digest());
         mac.init(new KeyParameter(keyBytes));
-        mac.update(baseBytes, 0, baseBytes.length);
-        final byte[] output = new byte[mac.getMacSize()];
+        message.write(stream(mac));
         mac.doFinal(output, 0);
-        return output;
     }
+
+    /**
+     * {@inheritDoc} This method returns the inner and the outer digest states
+     * which already absorbed the padded key. Both states are copied for each
+     * invocation of {@link #get(java.lang.Object, _Message, byte[])}.
+     *
+     * @param keyBytes {@inheritDoc}
+     * @param prefixBytes {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    Object keyState(final byte[] keyBytes, final byte[] prefixBytes) {
+        final SHA1Digest inner = new SHA1Digest();
+        final int blockLength = inner.getByteLength();
+        byte[] key = keyBytes;
+        if (key.length > blockLength) {
+            inner.update(key, 0, key.length);
+            key = new byte[inner.getDigestSize()];
+            inner.doFinal(key, 0);
+        }
+        final byte[] pad = new byte[blockLength];
+        System.arraycopy(key, 0, pad, 0, key.length);
+        for (int i = 0; i < pad.length; i++) {
+            pad[i] ^= IPAD;
+        }
+        inner.update(pad, 0, pad.length);
+        inner.update(prefixBytes, 0, prefixBytes.length);
+        for (int i = 0; i < pad.length; i++) {
+            pad[i] ^= IPAD ^ OPAD;
+        }
+        final SHA1Digest outer = new SHA1Digest();
+        outer.update(pad, 0, pad.length);
+        return new SHA1Digest[]{inner, outer};
+    }
+
+    @Override
+    void get(final Object keyState, final _Message message,
+             final byte[] output)
+            throws Exception {
+        final SHA1Digest[] digests = (SHA1Digest[]) keyState;
+        final SHA1Digest inner = new SHA1Digest(digests[0]);
+        message.write(stream(inner));
+        inner.doFinal(output, 0);
+        final SHA1Digest outer = new SHA1Digest(digests[1]);
+        outer.update(output, 0, inner.getDigestSize());
+        outer.doFinal(output, 0);
+    }
+
+    // ------------------------------------------------------------------- clear
+    /**
+     * {@inheritDoc} This method also releases the {@link HMac}, along with
+     * the key it was initialized with, of this instance.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureHmacSha1Bc clear() {
+        mac = null;
+        stream = null;
+        key = null;
+        return (OAuthSignatureHmacSha1Bc) super.clear();
+    }
+
+    // ------------------------------------------------------------ engineReused
+    /**
+     * {@inheritDoc} The reused {@link HMac} is held by this instance and is
+     * re-initialized only when the key differs from the one of the previous
+     * use.
+     *
+     * @param engineReused {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureHmacSha1Bc engineReused(final boolean engineReused) {
+        return (OAuthSignatureHmacSha1Bc) super.engineReused(engineReused);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * The {@link HMac} reused by this instance.
+     */
+    private HMac mac;
+
+    /**
+     * The output stream which updates {@link #mac}.
+     */
+    private OutputStream stream;
+
+    /**
+     * The key {@link #mac} is initialized with.
+     */
+    private byte[] key;
 }
@@ -15,7 +15,8 @@
  */
 package com.github.jinahya.rfc5849;
 
-import java.security.Key;
+import java.io.OutputStream;
+import java.util.Arrays;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -34,12 +35,126 @@ public class OAuthSignatureHmacSha1Jca extends OAuthSignatureHmacSha1 {
      */
     public static final String ALGORITHM = "HmacSHA1";
 
+    /**
+     * Returns an output stream which updates given MAC.
+     *
+     * @param mac the MAC to update
+     * @return an output stream
+     */
+    static OutputStream stream(final Mac mac) {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) {
+                mac.update((byte) b);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                mac.update(b, off, len);
+            }
+        };
+    }
+
+    // -------------------------------------------------------------------------
     @Override
-    byte[] get(final byte[] keyBytes, final byte[] baseBytes) throws Exception {
-        final Key key = new SecretKeySpec(keyBytes, ALGORITHM);
+    void get(final byte[] keyBytes, final _Message message,
+             final byte[] output)
+            throws Exception {
+        if (engineReused()) {
+            if (mac == null) {
+                mac = Mac.getInstance(ALGORITHM);
+                stream = stream(mac);
+            }
+            if (!Arrays.equals(key, keyBytes)) {
+                key = null;
+                mac.init(new SecretKeySpec(keyBytes, ALGORITHM));
+                key = keyBytes;
+            }
+            try {
+                message.write(stream);
+                mac.doFinal(output, 0); // resets with the same key
+            } catch (final Exception e) {
+                mac.reset();
+                throw e;
+            }
+            return;
+        }
         final Mac mac = Mac.getInstance(ALGORITHM);
-        mac.init(key);
-        final byte[] output = mac.doFinal(baseBytes);
-        return output;
+        mac.init(new SecretKeySpec(keyBytes, ALGORITHM));
+        message.write(stream(mac));
+        mac.doFinal(output, 0);
     }
+
+    /**
+     * {@inheritDoc} This method returns an initialized {@link Mac} which is
+     * cloned for each invocation of
+     * {@link #get(java.lang.Object, _Message, byte[])}.
+     *
+     * @param keyBytes {@inheritDoc}
+     * @param prefixBytes {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws Exception {@inheritDoc}
+     */
+    @Override
+    Object keyState(final byte[] keyBytes, final byte[] prefixBytes)
+            throws Exception {
+        final Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(keyBytes, ALGORITHM));
+        mac.update(prefixBytes);
+        return mac;
+    }
+
+    @Override
+    void get(final Object keyState, final _Message message,
+             final byte[] output)
+            throws Exception {
+        final Mac mac = (Mac) ((Mac) keyState).clone();
+        message.write(stream(mac));
+        mac.doFinal(output, 0);
+    }
+
+    // ------------------------------------------------------------------- clear
+    /**
+     * {@inheritDoc} This method also releases the {@link Mac}, along with the
+     * key it was initialized with, of this instance.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureHmacSha1Jca clear() {
+        mac = null;
+        stream = null;
+        key = null;
+        return (OAuthSignatureHmacSha1Jca) super.clear();
+    }
+
+    // ------------------------------------------------------------ engineReused
+    /**
+     * {@inheritDoc} The reused {@link Mac} is held by this instance and is
+     * re-initialized only when the key differs from the one of the previous
+     * use.
+     *
+     * @param engineReused {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureHmacSha1Jca engineReused(final boolean engineReused) {
+        return (OAuthSignatureHmacSha1Jca) super.engineReused(engineReused);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * The {@link Mac} reused by this instance.
+     */
+    private Mac mac;
+
+    /**
+     * The output stream which updates {@link #mac}.
+     */
+    private OutputStream stream;
+
+    /**
+     * The key {@link #mac} is initialized with.
+     */
+    private byte[] key;
 }
@@ -41,13 +41,29 @@ public class OAuthSignaturePlaintext extends OAuthSignature {
     // -------------------------------------------------------------------------
     @Override
     public String get() throws Exception {
+        return keyString();
+    }
+
+    /**
+     * Returns the percent-encoded {@code consumerSecret} and the
+     * percent-encoded {@code tokenSecret} joined with {@code &}. The value is
+     * kept until either secret is changed.
+     *
+     * @return the key string
+     * @throws IllegalStateException if either secret is not set.
+     */
+    final String keyString() {
         if (consumerSecret == null) {
             throw new IllegalStateException("no consumerSecret set");
         }
         if (tokenSecret == null) {
             throw new IllegalStateException("no tokenSecret set");
         }
-        return encodePercent(consumerSecret) + "&" + encodePercent(tokenSecret);
+        if (keyString == null) {
+            keyString = encodePercent(consumerSecret) + "&"
+                        + encodePercent(tokenSecret);
+        }
+        return keyString;
     }
 
     // -------------------------------------------------------------- baseString
@@ -57,6 +73,21 @@ public class OAuthSignaturePlaintext extends OAuthSignature {
         return (OAuthSignaturePlaintext) super.baseString(baseString);
     }
 
+    // ------------------------------------------------------------------- clear
+    /**
+     * {@inheritDoc} This method also clears the {@code consumerSecret} and the
+     * {@code tokenSecret}.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignaturePlaintext clear() {
+        consumerSecret = null;
+        tokenSecret = null;
+        keyString = null;
+        return (OAuthSignaturePlaintext) super.clear();
+    }
+
     // ---------------------------------------------------------- consumerSecret
     /**
      * Replaces the value of {@code consumerSecret} with given and return this
@@ -67,6 +98,8 @@ public class OAuthSignaturePlaintext extends OAuthSignature {
      */
     public OAuthSignaturePlaintext consumerSecret(final String consumerSecret) {
         this.consumerSecret = consumerSecret;
+        keyString = null;
+        modified();
         return this;
     }
 
@@ -80,6 +113,8 @@ public class OAuthSignaturePlaintext extends OAuthSignature {
      */
     public OAuthSignaturePlaintext tokenSecret(final String tokenSecret) {
         this.tokenSecret = tokenSecret;
+        keyString = null;
+        modified();
         return this;
     }
 
@@ -87,4 +122,9 @@ public class OAuthSignaturePlaintext extends OAuthSignature {
     private String consumerSecret;
 
     private String tokenSecret;
+
+    /**
+     * The memoized value of {@link #keyString()}.
+     */
+    private String keyString;
 }
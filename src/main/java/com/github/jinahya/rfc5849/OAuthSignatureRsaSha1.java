@@ -15,6 +15,7 @@
  */
 package com.github.jinahya.rfc5849;
 
+import static com.github.jinahya.rfc5849._Base64.decodeBase64;
 import static com.github.jinahya.rfc5849._Base64.encodeBase64ToString;
 
 /**
@@ -28,6 +29,34 @@ import static com.github.jinahya.rfc5849._Base64.encodeBase64ToString;
  */
 public abstract class OAuthSignatureRsaSha1<T> extends OAuthSignature {
 
+    /**
+     * Checks whether given DER encoding is of an X.509 certificate rather
+     * than of a {@code SubjectPublicKeyInfo}. The first element of a
+     * {@code SubjectPublicKeyInfo} is an {@code AlgorithmIdentifier} which
+     * starts with an {@code OBJECT IDENTIFIER} while the first element of a
+     * certificate is a {@code TBSCertificate} which starts with a tagged
+     * version or an {@code INTEGER}.
+     *
+     * @param encoded the DER encoding
+     * @return {@code true} if {@code encoded} is of a certificate;
+     * {@code false} otherwise.
+     */
+    static boolean certificate(final byte[] encoded) {
+        final int first = contents(encoded, contents(encoded, 0));
+        return first < encoded.length && encoded[first] != 0x06;
+    }
+
+    /**
+     * Returns the offset of the contents of the DER element at given offset.
+     */
+    private static int contents(final byte[] encoded, final int offset) {
+        if (offset + 1 >= encoded.length) {
+            throw new IllegalArgumentException("truncated encoding");
+        }
+        final int length = encoded[offset + 1] & 0xFF;
+        return offset + 2 + ((length & 0x80) == 0 ? 0 : length & 0x7F);
+    }
+
     // -------------------------------------------------------------------------
     /**
      * Creates a new instance.
@@ -39,6 +68,11 @@ public abstract class OAuthSignatureRsaSha1<T> extends OAuthSignature {
     // -------------------------------------------------------------------------
     @Override
     public String get() throws Exception {
+        return encodeBase64ToString(getBytes());
+    }
+
+    @Override
+    byte[] getBytes() throws Exception {
         final OAuthBaseString baseString = baseString();
         if (baseString == null) {
             throw new IllegalStateException("no baseString set");
@@ -46,12 +80,141 @@ public abstract class OAuthSignatureRsaSha1<T> extends OAuthSignature {
         if (initParam == null) {
             throw new IllegalStateException("no initParam set");
         }
-        final byte[] baseBytes = baseString.get().getBytes("ISO-8859-1");
-        final byte[] signature = get(initParam, baseBytes);
-        return encodeBase64ToString(signature);
+        return get(initParam, baseString.message());
+    }
+
+    /**
+     * Signs given base bytes with given initialization parameter.
+     *
+     * @param initParam the initialization parameter
+     * @param baseBytes the base bytes
+     * @return the signature
+     * @throws Exception if an error occurs.
+     */
+    final byte[] get(final T initParam, final byte[] baseBytes)
+            throws Exception {
+        return get(initParam, _Message.of(baseBytes));
     }
 
-    abstract byte[] get(T initParam, byte[] baseBytes) throws Exception;
+    /**
+     * Signs given message with given initialization parameter. The message is
+     * written directly to the underlying engine.
+     *
+     * @param initParam the initialization parameter
+     * @param message the message
+     * @return the signature
+     * @throws Exception if an error occurs.
+     */
+    abstract byte[] get(T initParam, _Message message) throws Exception;
+
+    // ------------------------------------------------------------------ verify
+    /**
+     * Verifies given signature of current base string with the public key of
+     * the consumer. The consumer is identified by the
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_CONSUMER_KEY}
+     * of the base string and its public key is resolved with the
+     * {@code publicKeyResolver}. Decoded public keys are kept in the
+     * {@code publicKeyCache}, when set, and engines initialized for each
+     * public key are reused, when {@code engineReused} is set.
+     *
+     * @param signature the received, percent-decoded value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_SIGNATURE}.
+     * @return {@code true} if {@code signature} is valid; {@code false} if
+     * not, if the consumer is unknown or if {@code signature} is not a valid
+     * Base64 encoding.
+     * @throws IllegalStateException if no {@code baseString}, no
+     * {@code publicKeyResolver} or no
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_CONSUMER_KEY}
+     * is set.
+     * @throws Exception if an error occurs.
+     * @see #publicKeyResolver(OAuthPublicKeyResolver)
+     * @see #publicKeyCache(OAuthKeyCache)
+     */
+    public boolean verify(final String signature) throws Exception {
+        if (signature == null) {
+            throw new NullPointerException("null signature");
+        }
+        final OAuthBaseString baseString = baseString();
+        if (baseString == null) {
+            throw new IllegalStateException("no baseString set");
+        }
+        if (publicKeyResolver == null) {
+            throw new IllegalStateException("no publicKeyResolver set");
+        }
+        final String consumerKey = baseString.protocolParameter(
+                OAuthConstants.OAUTH_CONSUMER_KEY);
+        if (consumerKey == null) {
+            throw new IllegalStateException(
+                    "no " + OAuthConstants.OAUTH_CONSUMER_KEY + " set");
+        }
+        final Object publicKey = publicKey(consumerKey);
+        if (publicKey == null) {
+            return false;
+        }
+        final byte[] signatureBytes;
+        try {
+            signatureBytes = decodeBase64(signature);
+        } catch (final IllegalArgumentException iae) {
+            return false;
+        }
+        return verify(publicKey, baseString.message(), signatureBytes);
+    }
+
+    /**
+     * Returns the decoded public key of given consumer.
+     *
+     * @param consumerKey the consumer key
+     * @return the decoded public key or {@code null} if the consumer is
+     * unknown.
+     * @throws Exception if an error occurs.
+     */
+    private Object publicKey(final String consumerKey) throws Exception {
+        final Object key = OAuthKeyCache.key(
+                getClass(), publicKeyResolver, consumerKey);
+        if (publicKeyCache != null) {
+            final Object publicKey = publicKeyCache.get(key);
+            if (publicKey != null) {
+                return publicKey;
+            }
+        }
+        final byte[] encoded = publicKeyResolver.resolve(consumerKey);
+        if (encoded == null) {
+            return null;
+        }
+        final Object publicKey = publicKey(encoded, certificate(encoded));
+        if (publicKeyCache != null) {
+            publicKeyCache.put(key, publicKey);
+        }
+        return publicKey;
+    }
+
+    /**
+     * Decodes given public key.
+     *
+     * @param encoded the DER encoded certificate or
+     * {@code SubjectPublicKeyInfo}
+     * @param certificate {@code true} if {@code encoded} is of a certificate
+     * @return the decoded public key which can be cached and shared by
+     * multiple threads.
+     * @throws Exception if an error occurs.
+     */
+    abstract Object publicKey(byte[] encoded, boolean certificate)
+            throws Exception;
+
+    /**
+     * Verifies given signature of given message with given public key
+     * decoded by {@link #publicKey(byte[], boolean)}.
+     *
+     * @param publicKey the decoded public key
+     * @param message the message
+     * @param signature the signature to verify
+     * @return {@code true} if {@code signature} is valid; {@code false}
+     * otherwise.
+     * @throws Exception if an error occurs.
+     */
+    abstract boolean verify(Object publicKey, _Message message,
+                            byte[] signature)
+            throws Exception;
 
     // -------------------------------------------------------------- baseString
     @Override
@@ -60,7 +223,31 @@ public abstract class OAuthSignatureRsaSha1<T> extends OAuthSignature {
         return (OAuthSignatureRsaSha1<T>) super.baseString(baseString);
     }
 
-    // -------------------------------------------------------------------------
+    // ------------------------------------------------------------------- clear
+    /**
+     * {@inheritDoc} This method also clears the {@code initParam}. The
+     * {@code engineReused}, {@code publicKeyResolver} and
+     * {@code publicKeyCache} options are kept.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureRsaSha1<T> clear() {
+        initParam = null;
+        super.clear();
+        return this;
+    }
+
+    // --------------------------------------------------------------- initParam
+    /**
+     * Returns the initialization parameter.
+     *
+     * @return the initialization parameter or {@code null}
+     */
+    T initParam() {
+        return initParam;
+    }
+
     /**
      * Sets a initialization parameter.
      *
@@ -72,6 +259,63 @@ public abstract class OAuthSignatureRsaSha1<T> extends OAuthSignature {
             throw new NullPointerException("null initParam");
         }
         this.initParam = initParam;
+        modified();
+        return this;
+    }
+
+    // ------------------------------------------------------------ engineReused
+    /**
+     * Returns whether this signature reuses its own engines.
+     *
+     * @return {@code true} if engines are reused; {@code false} otherwise
+     */
+    boolean engineReused() {
+        return engineReused;
+    }
+
+    /**
+     * Sets whether this signature reuses engines of its own, already
+     * initialized with the {@code initParam}, instead of creating and
+     * initializing a new one for each invocation of {@link #get()}. Keys are
+     * compared by identity. Engines for verifying are likewise kept for
+     * public keys of {@link #verify(String)}, which is effective along with a
+     * {@link #publicKeyCache(OAuthKeyCache) publicKeyCache}. The engines, and
+     * the keys they hold, are released by {@link #clear()} or along with
+     * this instance.
+     *
+     * @param engineReused {@code true} for reusing; {@code false} otherwise
+     * @return this instance
+     */
+    public OAuthSignatureRsaSha1<T> engineReused(final boolean engineReused) {
+        this.engineReused = engineReused;
+        return this;
+    }
+
+    // ------------------------------------------------------- publicKeyResolver
+    /**
+     * Sets a resolver for public keys of consumers which is used by
+     * {@link #verify(String)}.
+     *
+     * @param publicKeyResolver the resolver
+     * @return this instance
+     */
+    public OAuthSignatureRsaSha1<T> publicKeyResolver(
+            final OAuthPublicKeyResolver publicKeyResolver) {
+        this.publicKeyResolver = publicKeyResolver;
+        return this;
+    }
+
+    // ---------------------------------------------------------- publicKeyCache
+    /**
+     * Sets a cache for decoded public keys. When set, the public key of each
+     * consumer is resolved and decoded once by {@link #verify(String)}.
+     *
+     * @param publicKeyCache the cache; {@code null} for no caching.
+     * @return this instance
+     */
+    public OAuthSignatureRsaSha1<T> publicKeyCache(
+            final OAuthKeyCache publicKeyCache) {
+        this.publicKeyCache = publicKeyCache;
         return this;
     }
 
@@ -80,4 +324,10 @@ public abstract class OAuthSignatureRsaSha1<T> extends OAuthSignature {
      * The initialization parameter.
      */
     private T initParam;
+
+    private boolean engineReused;
+
+    private OAuthPublicKeyResolver publicKeyResolver;
+
+    private OAuthKeyCache publicKeyCache;
 }
@@ -15,10 +15,14 @@
  */
 package com.github.jinahya.rfc5849;
 
+import java.io.OutputStream;
+import org.bouncycastle.asn1.ASN1Object;
+import org.bouncycastle.asn1.x509.X509CertificateStructure;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.Signer;
 import org.bouncycastle.crypto.digests.SHA1Digest;
 import org.bouncycastle.crypto.signers.RSADigestSigner;
+import org.bouncycastle.crypto.util.PublicKeyFactory;
 
 /**
  * A signature builder uses Bouncy Castle.
@@ -30,15 +34,121 @@ import org.bouncycastle.crypto.signers.RSADigestSigner;
 public class OAuthSignatureRsaSha1Bc
         extends OAuthSignatureRsaSha1<CipherParameters> {
 
+    /**
+     * Returns an output stream which updates given signer.
+     *
+     * @param signer the signer to update
+     * @return an output stream
+     */
+    static OutputStream stream(final Signer signer) {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) {
+                signer.update((byte) b);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                signer.update(b, off, len);
+            }
+        };
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the signer of this instance initialized for signing with given
+     * parameters. The signer is re-initialized only when the parameters
+     * differ from the ones of the previous use.
+     *
+     * @param initParam the parameters
+     * @return an initialized signer
+     */
+    private Signer engine(final CipherParameters initParam) {
+        if (engine == null) {
+            engine = new RSADigestSigner(new SHA1Digest());
+            engineStream = stream(engine);
+        }
+        if (engineKey != initParam) {
+            engineKey = null;
+            engine.init(true, initParam);
+            engineKey = initParam;
+        }
+        return engine;
+    }
+
+    /**
+     * Returns the signer of this instance initialized for verifying with
+     * given public key parameters. The signer is re-initialized only when the
+     * parameters differ from the ones of the previous use.
+     *
+     * @param publicKey the public key parameters
+     * @return an initialized signer
+     */
+    private Signer verifier(final CipherParameters publicKey) {
+        if (verifier == null) {
+            verifier = new RSADigestSigner(new SHA1Digest());
+            verifierStream = stream(verifier);
+        }
+        if (verifierKey != publicKey) {
+            verifierKey = null;
+            verifier.init(false, publicKey);
+            verifierKey = publicKey;
+        }
+        return verifier;
+    }
+
     @Override
-    byte[] get(final CipherParameters initParam, final byte[] baseBytes)
+    byte[] get(final CipherParameters initParam, final _Message message)
             throws Exception {
+        if (engineReused()) {
+            final Signer engine = engine(initParam);
+            try {
+                message.write(engineStream);
+                return engine.generateSignature(); // resets the digest
+            } catch (final Exception e) {
+                engine.reset();
+                throw e;
+            }
+        }
         final Signer signer = new RSADigestSigner(new SHA1Digest());
         signer.init(true, initParam);
-        signer.update(baseBytes, 0, baseBytes.length);
+        message.write(stream(signer));
         return signer.generateSignature();
     }
 
+    @Override
+    Object publicKey(final byte[] encoded, final boolean certificate)
+            throws Exception {
+        if (certificate) {
+            return PublicKeyFactory.createKey(
+                    X509CertificateStructure.getInstance(
+                            ASN1Object.fromByteArray(encoded))
+                    .getSubjectPublicKeyInfo());
+        }
+        return PublicKeyFactory.createKey(encoded);
+    }
+
+    @Override
+    boolean verify(final Object publicKey, final _Message message,
+                   final byte[] signature)
+            throws Exception {
+        final CipherParameters key = (CipherParameters) publicKey;
+        if (engineReused()) {
+            final Signer engine = verifier(key);
+            try {
+                message.write(verifierStream);
+                return engine.verifySignature(signature); // resets the digest
+            } catch (final Exception e) {
+                engine.reset();
+                throw e;
+            }
+        }
+        final Signer verifier = new RSADigestSigner(new SHA1Digest());
+        verifier.init(false, key);
+        message.write(stream(verifier));
+        return verifier.verifySignature(signature);
+    }
+
     // -------------------------------------------------------------- baseString
     @Override
     public OAuthSignatureRsaSha1Bc baseString(
@@ -50,4 +160,74 @@ public class OAuthSignatureRsaSha1Bc
     public OAuthSignatureRsaSha1Bc initParam(final CipherParameters initParam) {
         return (OAuthSignatureRsaSha1Bc) super.initParam(initParam);
     }
+
+    // ------------------------------------------------------- publicKeyResolver
+    @Override
+    public OAuthSignatureRsaSha1Bc publicKeyResolver(
+            final OAuthPublicKeyResolver publicKeyResolver) {
+        return (OAuthSignatureRsaSha1Bc) super.publicKeyResolver(
+                publicKeyResolver);
+    }
+
+    // ---------------------------------------------------------- publicKeyCache
+    @Override
+    public OAuthSignatureRsaSha1Bc publicKeyCache(
+            final OAuthKeyCache publicKeyCache) {
+        return (OAuthSignatureRsaSha1Bc) super.publicKeyCache(publicKeyCache);
+    }
+
+    // ------------------------------------------------------------------- clear
+    /**
+     * {@inheritDoc} This method also releases the signers, along with the
+     * keys they were initialized with, of this instance.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureRsaSha1Bc clear() {
+        engine = null;
+        engineStream = null;
+        engineKey = null;
+        verifier = null;
+        verifierStream = null;
+        verifierKey = null;
+        return (OAuthSignatureRsaSha1Bc) super.clear();
+    }
+
+    // ------------------------------------------------------------ engineReused
+    @Override
+    public OAuthSignatureRsaSha1Bc engineReused(final boolean engineReused) {
+        return (OAuthSignatureRsaSha1Bc) super.engineReused(engineReused);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * The signer reused for signing.
+     */
+    private Signer engine;
+
+    /**
+     * The output stream which updates {@link #engine}.
+     */
+    private OutputStream engineStream;
+
+    /**
+     * The parameters {@link #engine} is initialized with.
+     */
+    private CipherParameters engineKey;
+
+    /**
+     * The signer reused for verifying.
+     */
+    private Signer verifier;
+
+    /**
+     * The output stream which updates {@link #verifier}.
+     */
+    private OutputStream verifierStream;
+
+    /**
+     * The parameters {@link #verifier} is initialized with.
+     */
+    private CipherParameters verifierKey;
 }
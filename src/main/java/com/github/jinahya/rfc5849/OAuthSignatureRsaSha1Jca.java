@@ -15,8 +15,16 @@
  */
 package com.github.jinahya.rfc5849;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.KeyFactory;
 import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.security.Signature;
+import java.security.SignatureException;
+import java.security.cert.CertificateFactory;
+import java.security.spec.X509EncodedKeySpec;
 
 /**
  * A request signer uses Java Cryptography Architecture.
@@ -34,15 +42,153 @@ public class OAuthSignatureRsaSha1Jca
      */
     protected static final String ALGORITHM = "SHA1withRSA";
 
+    /**
+     * The maximum number of initialized engines kept by an instance for each
+     * of signing and verifying.
+     */
+    static final int ENGINES = 8;
+
+    /**
+     * Verifies given signature with given engine which already absorbed the
+     * message. A malformed signature is reported as invalid.
+     */
+    private static boolean verify(final Signature verifier,
+                                  final PublicKey publicKey,
+                                  final byte[] signature)
+            throws Exception {
+        try {
+            return verifier.verify(signature); // resets for the same key
+        } catch (final SignatureException se) {
+            verifier.initVerify(publicKey);
+            return false;
+        }
+    }
+
+    /**
+     * Returns an output stream which updates given signature. A
+     * {@link SignatureException} thrown by the signature is wrapped in an
+     * {@link IOException}.
+     *
+     * @param signature the signature to update
+     * @return an output stream
+     */
+    static OutputStream stream(final Signature signature) {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len)
+                    throws IOException {
+                try {
+                    signature.update(b, off, len);
+                } catch (final SignatureException se) {
+                    throw (IOException) new IOException(se.getMessage())
+                            .initCause(se);
+                }
+            }
+        };
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns an engine of this instance initialized for signing with given
+     * private key. Engines for up to {@value #ENGINES} most recently used
+     * keys, compared by identity, are kept.
+     *
+     * @param privateKey the private key
+     * @return an initialized signature engine.
+     * @throws Exception if an error occurs.
+     */
+    private Signature engine(final PrivateKey privateKey) throws Exception {
+        if (engines == null) {
+            engines = new _Lru<PrivateKey, Signature>(ENGINES);
+        }
+        Signature engine = engines.get(privateKey);
+        if (engine == null) {
+            engine = Signature.getInstance(ALGORITHM);
+            engine.initSign(privateKey);
+            engines.put(privateKey, engine);
+        }
+        return engine;
+    }
+
+    /**
+     * Returns an engine of this instance initialized for verifying with given
+     * public key. Engines for up to {@value #ENGINES} most recently used
+     * keys, compared by identity, are kept.
+     *
+     * @param publicKey the public key
+     * @return an initialized signature engine.
+     * @throws Exception if an error occurs.
+     */
+    private Signature verifier(final PublicKey publicKey) throws Exception {
+        if (verifiers == null) {
+            verifiers = new _Lru<PublicKey, Signature>(ENGINES);
+        }
+        Signature verifier = verifiers.get(publicKey);
+        if (verifier == null) {
+            verifier = Signature.getInstance(ALGORITHM);
+            verifier.initVerify(publicKey);
+            verifiers.put(publicKey, verifier);
+        }
+        return verifier;
+    }
+
     @Override
-    byte[] get(final PrivateKey initParam, final byte[] baseBytes)
+    byte[] get(final PrivateKey initParam, final _Message message)
             throws Exception {
+        if (engineReused()) {
+            final Signature engine = engine(initParam);
+            try {
+                message.write(stream(engine));
+                return engine.sign(); // resets for the same key
+            } catch (final Exception e) {
+                engine.initSign(initParam);
+                throw e;
+            }
+        }
         final Signature signature = Signature.getInstance(ALGORITHM);
         signature.initSign(initParam);
-        signature.update(baseBytes);
+        message.write(stream(signature));
         return signature.sign();
     }
 
+    @Override
+    Object publicKey(final byte[] encoded, final boolean certificate)
+            throws Exception {
+        if (certificate) {
+            return CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(encoded))
+                    .getPublicKey();
+        }
+        return KeyFactory.getInstance("RSA")
+                .generatePublic(new X509EncodedKeySpec(encoded));
+    }
+
+    @Override
+    boolean verify(final Object publicKey, final _Message message,
+                   final byte[] signature)
+            throws Exception {
+        final PublicKey key = (PublicKey) publicKey;
+        if (engineReused()) {
+            final Signature engine = verifier(key);
+            try {
+                message.write(stream(engine));
+                return verify(engine, key, signature);
+            } catch (final Exception e) {
+                engine.initVerify(key);
+                throw e;
+            }
+        }
+        final Signature verifier = Signature.getInstance(ALGORITHM);
+        verifier.initVerify(key);
+        message.write(stream(verifier));
+        return verify(verifier, key, signature);
+    }
+
     // -------------------------------------------------------------- baseString
     @Override
     public OAuthSignatureRsaSha1Jca baseString(
@@ -55,4 +201,58 @@ public class OAuthSignatureRsaSha1Jca
     public OAuthSignatureRsaSha1Jca initParam(final PrivateKey initParam) {
         return (OAuthSignatureRsaSha1Jca) super.initParam(initParam);
     }
+
+    // ------------------------------------------------------- publicKeyResolver
+    @Override
+    public OAuthSignatureRsaSha1Jca publicKeyResolver(
+            final OAuthPublicKeyResolver publicKeyResolver) {
+        return (OAuthSignatureRsaSha1Jca) super.publicKeyResolver(
+                publicKeyResolver);
+    }
+
+    // ---------------------------------------------------------- publicKeyCache
+    @Override
+    public OAuthSignatureRsaSha1Jca publicKeyCache(
+            final OAuthKeyCache publicKeyCache) {
+        return (OAuthSignatureRsaSha1Jca) super.publicKeyCache(publicKeyCache);
+    }
+
+    // ------------------------------------------------------------------- clear
+    /**
+     * {@inheritDoc} This method also releases the engines, along with the
+     * keys they were initialized with, of this instance.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureRsaSha1Jca clear() {
+        engines = null;
+        verifiers = null;
+        return (OAuthSignatureRsaSha1Jca) super.clear();
+    }
+
+    // ------------------------------------------------------------ engineReused
+    /**
+     * {@inheritDoc} This instance keeps initialized engines for up to
+     * {@value #ENGINES} most recently used keys so that alternating between
+     * a few keys doesn't re-initialize an engine for each invocation.
+     *
+     * @param engineReused {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public OAuthSignatureRsaSha1Jca engineReused(final boolean engineReused) {
+        return (OAuthSignatureRsaSha1Jca) super.engineReused(engineReused);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * The engines reused for signing.
+     */
+    private _Lru<PrivateKey, Signature> engines;
+
+    /**
+     * The engines reused for verifying.
+     */
+    private _Lru<PublicKey, Signature> verifiers;
 }
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An immutable signer for a pair of client credentials and token credentials.
+ * The secrets are encoded, and the key material is prepared, once when an
+ * instance is created. Instances of this class are safe to be shared by
+ * multiple threads.
+ * <blockquote><pre>{@code
+ * OAuthSigner signer = new OAuthSigner(
+ *         new OAuthSignatureHmacSha1Jca()
+ *         .consumerSecret(consumerSecret)
+ *         .tokenSecret(tokenSecret),
+ *         consumerKey, token);
+ * // on any thread
+ * String authorization = signer.sign("GET", baseUri, parameters);
+ * }</pre></blockquote>
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public final class OAuthSigner {
+
+    /**
+     * A nonce generator whose random is created along with the instance so
+     * that the instance is safe to be used by multiple threads.
+     */
+    private static final class SharedOAuthNonce extends SimpleOAuthNonce {
+
+        @Override
+        protected Random random() {
+            return random;
+        }
+
+        private final Random random = new SecureRandom();
+    }
+
+    /**
+     * Creates a new instance of the library class of given signature. Since
+     * the methods used for signing are package-private, the new instance
+     * signs exactly as given signature does while it shares none of the
+     * options, such as {@code engineReused}, of given signature.
+     *
+     * @param signature the signature
+     * @return a new instance of the class of the same algorithm and engine
+     * @throws IllegalArgumentException if given signature is not of any of
+     * the library classes.
+     */
+    private static OAuthSignature engine(final OAuthSignature signature) {
+        if (signature instanceof OAuthSignatureHmacSha1Bc) {
+            return new OAuthSignatureHmacSha1Bc();
+        }
+        if (signature instanceof OAuthSignatureHmacSha1Jca) {
+            return new OAuthSignatureHmacSha1Jca();
+        }
+        if (signature instanceof OAuthSignatureRsaSha1Bc) {
+            return new OAuthSignatureRsaSha1Bc().engineReused(true);
+        }
+        if (signature instanceof OAuthSignatureRsaSha1Jca) {
+            return new OAuthSignatureRsaSha1Jca().engineReused(true);
+        }
+        throw new IllegalArgumentException(
+                "unsupported signature: " + signature);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> byte[] get(final OAuthSignatureRsaSha1<T> signature,
+                                  final Object initParam,
+                                  final _Message message)
+            throws Exception {
+        return signature.get((T) initParam, message);
+    }
+
+    // ------------------------------------------------------------ constructors
+    /**
+     * Creates a new instance with no realm, a {@link SimpleOAuthNonce} and a
+     * {@link SimpleOAuthTimestamp}.
+     *
+     * @param signature the signature whose secrets or {@code initParam} are
+     * set.
+     * @param consumerKey the value for
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_CONSUMER_KEY}
+     * @param token the value for
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TOKEN}; may be
+     * {@code null}
+     * @throws Exception if an error occurs.
+     * @see #OAuthSigner(OAuthSignature, String, String, String, OAuthNonce,
+     * OAuthTimestamp)
+     */
+    public OAuthSigner(final OAuthSignature signature,
+                       final String consumerKey, final String token)
+            throws Exception {
+        this(signature, consumerKey, token, null, new SharedOAuthNonce(),
+             new SimpleOAuthTimestamp());
+    }
+
+    /**
+     * Creates a new instance. The secrets, or the {@code initParam}, of given
+     * signature are captured and given signature is not kept, so changes made
+     * to the signature afterwards, including its options, are not reflected.
+     * The {@code nonce} and the {@code timestamp} must be safe to be used by
+     * multiple threads.
+     *
+     * @param signature the signature whose secrets or {@code initParam} are
+     * set.
+     * @param consumerKey the value for
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_CONSUMER_KEY}
+     * @param token the value for
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TOKEN}; may be
+     * {@code null}
+     * @param realm the realm; may be {@code null}
+     * @param nonce the nonce generator
+     * @param timestamp the timestamp generator
+     * @throws IllegalStateException if the signature has no secrets or no
+     * {@code initParam} set.
+     * @throws Exception if an error occurs.
+     */
+    public OAuthSigner(final OAuthSignature signature,
+                       final String consumerKey, final String token,
+                       final String realm, final OAuthNonce nonce,
+                       final OAuthTimestamp timestamp)
+            throws Exception {
+        super();
+        if (signature == null) {
+            throw new NullPointerException("null signature");
+        }
+        if (consumerKey == null) {
+            throw new NullPointerException("null consumerKey");
+        }
+        if (nonce == null) {
+            throw new NullPointerException("null nonce");
+        }
+        if (timestamp == null) {
+            throw new NullPointerException("null timestamp");
+        }
+        final String signatureMethod;
+        if (signature instanceof OAuthSignatureHmacSha1) {
+            final OAuthSignatureHmacSha1 hmac
+                    = (OAuthSignatureHmacSha1) engine(signature);
+            this.signature = hmac;
+            keyState = hmac.keyState(
+                    ((OAuthSignatureHmacSha1) signature).keyString()
+                    .getBytes("ISO-8859-1"),
+                    new byte[0]);
+            plaintext = null;
+            signatureMethod = OAuthConstants.SIGNATURE_METHOD_HMAC_SHA1;
+        } else if (signature instanceof OAuthSignatureRsaSha1) {
+            final Object initParam
+                    = ((OAuthSignatureRsaSha1<?>) signature).initParam();
+            if (initParam == null) {
+                throw new IllegalStateException("no initParam set");
+            }
+            this.signature = engine(signature);
+            engines.offer(this.signature);
+            keyState = initParam;
+            plaintext = null;
+            signatureMethod = OAuthConstants.SIGNATURE_METHOD_RSA_SHA1;
+        } else if (signature instanceof OAuthSignaturePlaintext) {
+            this.signature = null;
+            keyState = null;
+            plaintext = ((OAuthSignaturePlaintext) signature).keyString();
+            signatureMethod = OAuthConstants.SIGNATURE_METHOD_PLAINTEXT;
+        } else {
+            throw new IllegalArgumentException(
+                    "unsupported signature: " + signature);
+        }
+        final _Parameters statics = new _Parameters();
+        final Map<String, Object> protocolParameters
+                = new TreeMap<String, Object>();
+        statics.add(OAuthConstants.OAUTH_CONSUMER_KEY, consumerKey);
+        protocolParameters.put(OAuthConstants.OAUTH_CONSUMER_KEY, consumerKey);
+        if (token != null) {
+            statics.add(OAuthConstants.OAUTH_TOKEN, token);
+            protocolParameters.put(OAuthConstants.OAUTH_TOKEN, token);
+        }
+        statics.add(OAuthConstants.OAUTH_SIGNATURE_METHOD, signatureMethod);
+        protocolParameters.put(OAuthConstants.OAUTH_SIGNATURE_METHOD,
+                               signatureMethod);
+        normalized = new _Normalized(null, statics);
+        this.protocolParameters
+                = Collections.unmodifiableMap(protocolParameters);
+        this.realm = realm;
+        this.nonce = nonce;
+        this.timestamp = timestamp;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Signs a request and returns the value for the {@code Authorization}
+     * header. The nonce and the timestamp are generated with the generators
+     * of this signer.
+     *
+     * @param httpMethod the {@code httpMethod}
+     * @param baseUri the {@code baseUri}
+     * @param parameters the query parameters and the entity parameters; may
+     * be {@code null}
+     * @return the value for the {@code Authorization} header
+     * @throws Exception if an error occurs.
+     * @see #sign(String, String, Map, String, String)
+     */
+    public String sign(final String httpMethod, final String baseUri,
+                       final Map<String, List<String>> parameters)
+            throws Exception {
+        return sign(httpMethod, baseUri, parameters, nonce.get(),
+                    timestamp.get());
+    }
+
+    /**
+     * Signs a request with given nonce and timestamp and returns the value
+     * for the {@code Authorization} header.
+     *
+     * @param httpMethod the {@code httpMethod}
+     * @param baseUri the {@code baseUri}
+     * @param parameters the query parameters and the entity parameters; may
+     * be {@code null}
+     * @param nonce the value for
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_NONCE}
+     * @param timestamp the value for
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TIMESTAMP}
+     * @return the value for the {@code Authorization} header
+     * @throws IllegalArgumentException if any key of {@code parameters}
+     * starts with {@value OAuthBaseString#PROTOCOL_PARAMETER_PREFIX}.
+     * @throws Exception if an error occurs.
+     */
+    public String sign(final String httpMethod, final String baseUri,
+                       final Map<String, List<String>> parameters,
+                       final String nonce, final String timestamp)
+            throws Exception {
+        if (httpMethod == null) {
+            throw new NullPointerException("null httpMethod");
+        }
+        if (baseUri == null) {
+            throw new NullPointerException("null baseUri");
+        }
+        if (nonce == null) {
+            throw new NullPointerException("null nonce");
+        }
+        if (timestamp == null) {
+            throw new NullPointerException("null timestamp");
+        }
+        final Map<String, Object> protocolParameters
+                = new TreeMap<String, Object>(this.protocolParameters);
+        protocolParameters.put(OAuthConstants.OAUTH_NONCE, nonce);
+        protocolParameters.put(OAuthConstants.OAUTH_TIMESTAMP, timestamp);
+        if (plaintext != null) {
+            protocolParameters.put(OAuthConstants.OAUTH_SIGNATURE, plaintext);
+            return _Header.toString(realm, protocolParameters);
+        }
+        final _Parameters dynamics = new _Parameters();
+        if (parameters != null) {
+            for (final Entry<String, List<String>> entry
+                 : parameters.entrySet()) {
+                if (entry.getKey().startsWith(
+                        OAuthBaseString.PROTOCOL_PARAMETER_PREFIX)) {
+                    throw new IllegalArgumentException(
+                            "parameter's key(" + entry.getKey()
+                            + ") starts with "
+                            + OAuthBaseString.PROTOCOL_PARAMETER_PREFIX);
+                }
+                for (final String value : entry.getValue()) {
+                    dynamics.add(entry.getKey(), value);
+                }
+            }
+        }
+        dynamics.add(OAuthConstants.OAUTH_NONCE, nonce);
+        dynamics.add(OAuthConstants.OAUTH_TIMESTAMP, timestamp);
+        final byte[] prefix = OAuthBaseString.prefix(
+                httpMethod.toUpperCase(), baseUri).getBytes("US-ASCII");
+        final _Normalized suffix = new _Normalized(normalized, dynamics);
+        final _Message message = new _Message() {
+            @Override
+            void write(final OutputStream output) throws IOException {
+                output.write(prefix);
+                suffix.write(output);
+            }
+        };
+        if (signature instanceof OAuthSignatureHmacSha1) {
+            protocolParameters.put(
+                    OAuthConstants.OAUTH_SIGNATURE,
+                    ((OAuthSignatureHmacSha1) signature).get(keyState,
+                                                             message));
+        } else {
+            OAuthSignature engine = engines.poll();
+            if (engine == null) {
+                engine = engine(signature);
+            }
+            try {
+                protocolParameters.put(
+                        OAuthConstants.OAUTH_SIGNATURE,
+                        get((OAuthSignatureRsaSha1<?>) engine, keyState,
+                            message));
+            } finally {
+                engines.offer(engine);
+            }
+        }
+        return _Header.toString(realm, protocolParameters);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * A private instance of the library class of the given signature. Its
+     * thread-safe methods are used for HMAC-SHA1 while it is pooled in
+     * {@link #engines} for RSA-SHA1; {@code null} for PLAINTEXT.
+     */
+    private final OAuthSignature signature;
+
+    /**
+     * The idle RSA-SHA1 instances, each of which reuses its engine, taken by
+     * one thread at a time; empty for others.
+     */
+    private final Queue<OAuthSignature> engines
+            = new ConcurrentLinkedQueue<OAuthSignature>();
+
+    /**
+     * The keyed state for HMAC-SHA1 or the {@code initParam} for RSA-SHA1.
+     */
+    private final Object keyState;
+
+    /**
+     * The signature value for PLAINTEXT.
+     */
+    private final String plaintext;
+
+    /**
+     * The normalized static protocol parameters.
+     */
+    private final _Normalized normalized;
+
+    /**
+     * The static protocol parameters.
+     */
+    private final Map<String, Object> protocolParameters;
+
+    private final String realm;
+
+    private final OAuthNonce nonce;
+
+    private final OAuthTimestamp timestamp;
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A nonce store which requires timestamps not to go backwards for each
+ * combination of a consumer key and a token. Only the highest timestamp of
+ * each combination is kept along with the nonces seen at that timestamp so
+ * that the memory scales with the number of active credentials rather than
+ * with the request rate. The number of nonces kept at a timestamp is limited
+ * as well.
+ * <p>
+ * Even with {@link SimpleOAuthTimestamp}, a client does not always satisfy
+ * this requirement. Concurrent requests with the same credentials, whether
+ * from one host or from many, may arrive reordered across a second boundary
+ * and the later one is rejected as {@link Rejection#OUT_OF_ORDER}. Use this
+ * store only for clients which send requests with the same credentials one
+ * at a time.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ * @see <a href="https://tools.ietf.org/html/rfc5849#section-3.3">3.3. Nonce and
+ * Timestamp (RFC 5849)</a>
+ */
+public class WatermarkOAuthNonceStore implements OAuthNonceStore {
+
+    /**
+     * Reasons of rejections.
+     */
+    public enum Rejection {
+
+        /**
+         * The timestamp differs from the current time by more than the
+         * window.
+         */
+        OUT_OF_WINDOW,
+        /**
+         * The timestamp is lower than the highest timestamp seen for the
+         * same credentials.
+         */
+        OUT_OF_ORDER,
+        /**
+         * The nonce is already seen with the same credentials and timestamp.
+         */
+        REPLAYED,
+        /**
+         * Too many nonces are already seen with the same credentials and
+         * timestamp.
+         */
+        TOO_MANY_NONCES
+    }
+
+    /**
+     * A combination of a consumer key and a token.
+     */
+    private static final class Credentials {
+
+        Credentials(final String consumerKey, final String token) {
+            super();
+            this.consumerKey = consumerKey;
+            this.token = token;
+            hash = consumerKey.hashCode() * 31 + token.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Credentials)) {
+                return false;
+            }
+            final Credentials credentials = (Credentials) obj;
+            return hash == credentials.hash
+                   && token.equals(credentials.token)
+                   && consumerKey.equals(credentials.consumerKey);
+        }
+
+        private final String consumerKey;
+
+        private final String token;
+
+        private final int hash;
+    }
+
+    /**
+     * The highest timestamp of a credentials and the nonces seen at it.
+     */
+    private static final class Watermark {
+
+        /**
+         * Checks and records given timestamp and nonce. At most
+         * {@code capacity} nonces are kept for the timestamp. Unless
+         * {@code checked}, the nonce is not looked up among the nonces seen
+         * at the timestamp.
+         *
+         * @return the reason of the rejection; {@code null} if accepted;
+         * {@link #REMOVED} if this watermark is removed from the store.
+         */
+        synchronized Object add(final long timestamp, final String nonce,
+                                final int capacity, final boolean checked) {
+            if (removed) {
+                return REMOVED;
+            }
+            if (timestamp < this.timestamp) {
+                return Rejection.OUT_OF_ORDER;
+            }
+            if (timestamp > this.timestamp) {
+                Arrays.fill(nonces, 0, count, null);
+                count = 0;
+                this.timestamp = timestamp;
+            } else if (checked) {
+                for (int i = 0; i < count; i++) {
+                    if (nonces[i].equals(nonce)) {
+                        return Rejection.REPLAYED;
+                    }
+                }
+            }
+            if (count == capacity) {
+                return Rejection.TOO_MANY_NONCES;
+            }
+            if (count == nonces.length) {
+                final String[] nonces = new String[count << 1];
+                System.arraycopy(this.nonces, 0, nonces, 0, count);
+                this.nonces = nonces;
+            }
+            nonces[count++] = nonce;
+            return null;
+        }
+
+        /**
+         * Marks this watermark removed if its timestamp is lower than given
+         * value.
+         */
+        synchronized boolean remove(final long oldest) {
+            if (timestamp < oldest) {
+                removed = true;
+            }
+            return removed;
+        }
+
+        private long timestamp = Long.MIN_VALUE;
+
+        private String[] nonces = new String[2];
+
+        private int count;
+
+        private boolean removed;
+    }
+
+    private static final Object REMOVED = new Object();
+
+    /**
+     * The default maximum number of nonces kept for a timestamp of each
+     * credentials.
+     */
+    static final int NONCES = 64;
+
+    // ------------------------------------------------------------ constructors
+    /**
+     * Creates a new instance which accepts any timestamp not lower than the
+     * highest one seen for the same credentials. Such instance keeps the
+     * watermark of every credentials it has ever seen, so its memory grows
+     * with the number of all credentials rather than active ones.
+     *
+     * @see #WatermarkOAuthNonceStore(int, int)
+     */
+    public WatermarkOAuthNonceStore() {
+        this(0);
+    }
+
+    /**
+     * Creates a new instance with given window which keeps at most
+     * {@value #NONCES} nonces for a timestamp of each credentials.
+     *
+     * @param window the number of seconds by which a timestamp may differ
+     * from the current time; {@code 0} for no limit.
+     * @throws IllegalArgumentException if {@code window} is negative.
+     * @see #WatermarkOAuthNonceStore(int, int)
+     */
+    public WatermarkOAuthNonceStore(final int window) {
+        this(window, NONCES);
+    }
+
+    /**
+     * Creates a new instance which additionally rejects timestamps differing
+     * from the current time by more than given window. Watermarks falling
+     * outside the window are dropped by {@link #expire()}. With a window of
+     * {@code 0}, watermarks are never dropped and the watermark of every
+     * credentials ever seen is kept forever.
+     *
+     * @param window the number of seconds by which a timestamp may differ
+     * from the current time; {@code 0} for no limit.
+     * @param nonces the maximum number of nonces kept for a timestamp of each
+     * credentials; following nonces are rejected as
+     * {@link Rejection#TOO_MANY_NONCES}.
+     * @throws IllegalArgumentException if {@code window} is negative or
+     * {@code nonces} is not positive.
+     */
+    public WatermarkOAuthNonceStore(final int window, final int nonces) {
+        super();
+        if (window < 0) {
+            throw new IllegalArgumentException("window(" + window + ") < 0");
+        }
+        if (nonces <= 0) {
+            throw new IllegalArgumentException("nonces(" + nonces + ") <= 0");
+        }
+        this.window = window;
+        this.nonces = nonces;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the current time in seconds.
+     *
+     * @return the current time in seconds
+     */
+    long now() {
+        return System.currentTimeMillis() / 1000L;
+    }
+
+    /**
+     * Checks and records given combination of credentials, timestamp and
+     * nonce.
+     *
+     * @param consumerKey the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_CONSUMER_KEY}
+     * @param token the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TOKEN}; may be
+     * {@code null}
+     * @param timestamp the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_TIMESTAMP}
+     * @param nonce the value of
+     * {@value com.github.jinahya.rfc5849.OAuthConstants#OAUTH_NONCE}
+     * @return the reason of the rejection; {@code null} if recorded.
+     */
+    public Rejection check(final String consumerKey, final String token,
+                           final long timestamp, final String nonce) {
+        return check(consumerKey, token, timestamp, nonce, true);
+    }
+
+    private Rejection check(final String consumerKey, final String token,
+                            final long timestamp, final String nonce,
+                            final boolean checked) {
+        if (consumerKey == null) {
+            throw new NullPointerException("null consumerKey");
+        }
+        if (nonce == null) {
+            throw new NullPointerException("null nonce");
+        }
+        if (window > 0) {
+            final long now = now();
+            if (timestamp < now - window || timestamp > now + window) {
+                return reject(Rejection.OUT_OF_WINDOW);
+            }
+        }
+        final Credentials credentials
+                = new Credentials(consumerKey, token == null ? "" : token);
+        while (true) {
+            Watermark watermark = watermarks.get(credentials);
+            if (watermark == null) {
+                final Watermark created = new Watermark();
+                watermark = watermarks.putIfAbsent(credentials, created);
+                if (watermark == null) {
+                    watermark = created;
+                }
+            }
+            final Object result
+                    = watermark.add(timestamp, nonce, nonces, checked);
+            if (result == REMOVED) {
+                watermarks.remove(credentials, watermark);
+                continue;
+            }
+            return result == null ? null : reject((Rejection) result);
+        }
+    }
+
+    private Rejection reject(final Rejection rejection) {
+        rejections.incrementAndGet(rejection.ordinal());
+        return rejection;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param consumerKey {@inheritDoc}
+     * @param token {@inheritDoc}
+     * @param timestamp {@inheritDoc}
+     * @param nonce {@inheritDoc}
+     * @return {@inheritDoc}
+     * @see #check(String, String, long, String)
+     */
+    @Override
+    public boolean add(final String consumerKey, final String token,
+                       final long timestamp, final String nonce) {
+        return check(consumerKey, token, timestamp, nonce) == null;
+    }
+
+    /**
+     * {@inheritDoc} The nonce is appended without scanning the nonces seen at
+     * the timestamp while the window, the order and the number of nonces are
+     * still checked.
+     *
+     * @param consumerKey {@inheritDoc}
+     * @param token {@inheritDoc}
+     * @param timestamp {@inheritDoc}
+     * @param nonce {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean put(final String consumerKey, final String token,
+                       final long timestamp, final String nonce) {
+        return check(consumerKey, token, timestamp, nonce, false) == null;
+    }
+
+    /**
+     * Drops watermarks whose timestamps already fell outside the window.
+     * Requests with those credentials are then checked against the window
+     * only. This method does nothing if the window is {@code 0}, in which
+     * case watermarks are kept forever.
+     */
+    public void expire() {
+        if (window == 0) {
+            return;
+        }
+        final long oldest = now() - window;
+        for (final Iterator<Watermark> i = watermarks.values().iterator();
+             i.hasNext();) {
+            if (i.next().remove(oldest)) {
+                i.remove();
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------- metrics
+    /**
+     * Returns the window.
+     *
+     * @return the number of seconds by which a timestamp may differ from the
+     * current time; {@code 0} for no limit.
+     */
+    public int window() {
+        return window;
+    }
+
+    /**
+     * Returns the number of credentials tracked.
+     *
+     * @return the number of credentials
+     */
+    public int size() {
+        return watermarks.size();
+    }
+
+    /**
+     * Returns the number of rejections of given reason.
+     *
+     * @param rejection the reason
+     * @return the number of rejections
+     */
+    public long rejections(final Rejection rejection) {
+        return rejections.get(rejection.ordinal());
+    }
+
+    // -------------------------------------------------------------------------
+    private final int window;
+
+    /**
+     * The maximum number of nonces kept for a timestamp of each credentials.
+     */
+    private final int nonces;
+
+    private final ConcurrentMap<Credentials, Watermark> watermarks
+            = new ConcurrentHashMap<Credentials, Watermark>();
+
+    private final AtomicLongArray rejections
+            = new AtomicLongArray(Rejection.values().length);
+}
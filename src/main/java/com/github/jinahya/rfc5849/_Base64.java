@@ -15,8 +15,9 @@
  */
 package com.github.jinahya.rfc5849;
 
-import java.io.UnsupportedEncodingException;
-import static java.lang.Math.ceil;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 /**
  * A class for Base64 encoding/decoding.
@@ -38,18 +39,99 @@ final class _Base64 {
         0x34, 0x35, 0x36, 0x37, 0x38, 0x39, 0x2B, 0x2F
     };
 
-    private static final byte[] DECODE = new byte[80];
-
-    private static final byte DELTA = 0x2B; // 43
+    /**
+     * The values of alphabet characters indexed by their {@code US-ASCII}
+     * values; {@code -1} for others.
+     */
+    private static final byte[] DECODE = new byte[0x80];
 
     static {
+        for (int i = 0; i < DECODE.length; i++) {
+            DECODE[i] = -1;
+        }
         for (byte i = 0; i < ENCODE.length; i++) {
-            DECODE[ENCODE[i] - DELTA] = i;
+            DECODE[ENCODE[i]] = i;
         }
     }
 
     private static final byte PAD = 0x3D; // '='
 
+    // ------------------------------------------------------------------ encode
+    /**
+     * Returns the number of bytes of the encoded form of given number of
+     * bytes.
+     *
+     * @param length the number of bytes to encode
+     * @return the number of encoded bytes.
+     */
+    static int encodedLength(final int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    private static void encode(final byte[] input, final byte[] output,
+                               int j) {
+        final byte[] encode = ENCODE;
+        final int limit = input.length - input.length % 3;
+        for (int i = 0; i < limit; i += 3) {
+            final int word = (input[i] & 0xFF) << 16
+                             | (input[i + 1] & 0xFF) << 8
+                             | (input[i + 2] & 0xFF);
+            output[j] = encode[(word >>> 18) & 0x3F];
+            output[j + 1] = encode[(word >>> 12) & 0x3F];
+            output[j + 2] = encode[(word >>> 6) & 0x3F];
+            output[j + 3] = encode[word & 0x3F];
+            j += 4;
+        }
+        if (limit < input.length) {
+            final boolean two = input.length - limit == 2;
+            final int word = (input[limit] & 0xFF) << 16
+                             | (two ? (input[limit + 1] & 0xFF) << 8 : 0);
+            output[j++] = encode[(word >>> 18) & 0x3F];
+            output[j++] = encode[(word >>> 12) & 0x3F];
+            output[j++] = two ? encode[(word >>> 6) & 0x3F] : PAD;
+            output[j] = PAD;
+        }
+    }
+
+    private static void encode(final byte[] input, final char[] output,
+                               int j) {
+        final byte[] encode = ENCODE;
+        final int limit = input.length - input.length % 3;
+        for (int i = 0; i < limit; i += 3) {
+            final int word = (input[i] & 0xFF) << 16
+                             | (input[i + 1] & 0xFF) << 8
+                             | (input[i + 2] & 0xFF);
+            output[j] = (char) encode[(word >>> 18) & 0x3F];
+            output[j + 1] = (char) encode[(word >>> 12) & 0x3F];
+            output[j + 2] = (char) encode[(word >>> 6) & 0x3F];
+            output[j + 3] = (char) encode[word & 0x3F];
+            j += 4;
+        }
+        if (limit < input.length) {
+            final boolean two = input.length - limit == 2;
+            final int word = (input[limit] & 0xFF) << 16
+                             | (two ? (input[limit + 1] & 0xFF) << 8 : 0);
+            output[j++] = (char) encode[(word >>> 18) & 0x3F];
+            output[j++] = (char) encode[(word >>> 12) & 0x3F];
+            output[j++] = (char) (two ? encode[(word >>> 6) & 0x3F] : PAD);
+            output[j] = (char) PAD;
+        }
+    }
+
+    private static void encode(final byte[] input, final _Sink sink)
+            throws IOException {
+        for (int i = 0; i < input.length; i += 3) {
+            final int remaining = input.length - i;
+            final int word = (input[i] & 0xFF) << 16
+                             | (remaining > 1 ? (input[i + 1] & 0xFF) << 8 : 0)
+                             | (remaining > 2 ? input[i + 2] & 0xFF : 0);
+            sink.put(ENCODE[(word >>> 18) & 0x3F]);
+            sink.put(ENCODE[(word >>> 12) & 0x3F]);
+            sink.put(remaining > 1 ? ENCODE[(word >>> 6) & 0x3F] : PAD);
+            sink.put(remaining > 2 ? ENCODE[word & 0x3F] : PAD);
+        }
+    }
+
     /**
      * Encodes given input.
      *
@@ -60,30 +142,95 @@ final class _Base64 {
         if (input == null) {
             throw new NullPointerException("null input");
         }
-        if (input.length == 0) {
-            return new byte[0];
+        final byte[] output = new byte[encodedLength(input.length)];
+        encode(input, output, 0);
+        return output;
+    }
+
+    /**
+     * Encodes given input and appends the output to given appendable.
+     *
+     * @param input the input
+     * @param target the appendable
+     * @return the number of characters appended.
+     * @throws IOException if an I/O error occurs.
+     */
+    static int encodeBase64(final byte[] input, final Appendable target)
+            throws IOException {
+        if (input == null) {
+            throw new NullPointerException("null input");
         }
-        final byte[] output = new byte[((int) ceil(input.length / 3.0d)) * 4];
-        int index = 0; // output index
-        for (int i = 0; i < input.length; i += 3) {
-            int word = 0;
-            int pads = 0;
-            for (int j = 0; j < 3; j++) {
-                word <<= 8;
-                final int k = i + j;
-                if (k < input.length) {
-                    word |= input[k] & 0xFF;
-                } else {
-                    pads++;
-                }
-            }
-            for (int j = 3; j >= 0; j--) {
-                output[index + j] = pads-- > 0 ? PAD : ENCODE[word & 0x3F];
-                word >>= 6;
-            }
-            index += 4;
+        encode(input, _Sink.of(target));
+        return encodedLength(input.length);
+    }
+
+    /**
+     * Encodes given input and appends the output to given string builder.
+     *
+     * @param input the input
+     * @param target the string builder
+     * @return the number of characters appended.
+     */
+    static int encodeBase64(final byte[] input, final StringBuilder target) {
+        try {
+            return encodeBase64(input, (Appendable) target);
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
         }
-        return output;
+    }
+
+    /**
+     * Encodes given input and puts the output to given buffer. Nothing is put
+     * if the buffer doesn't have enough room.
+     *
+     * @param input the input
+     * @param target the buffer
+     * @return the number of bytes put.
+     * @throws java.nio.BufferOverflowException if the {@code target} doesn't
+     * have enough room.
+     */
+    static int encodeBase64(final byte[] input, final ByteBuffer target) {
+        if (input == null) {
+            throw new NullPointerException("null input");
+        }
+        final int encoded = encodedLength(input.length);
+        if (encoded > target.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (target.hasArray()) {
+            encode(input, target.array(),
+                   target.arrayOffset() + target.position());
+            target.position(target.position() + encoded);
+            return encoded;
+        }
+        try {
+            encode(input, _Sink.of(target));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return encoded;
+    }
+
+    /**
+     * Encodes given input into given array starting at given offset. Nothing
+     * is set if the array doesn't have enough room.
+     *
+     * @param input the input
+     * @param target the array
+     * @param offset the offset in {@code target}
+     * @return the number of bytes set.
+     * @throws IndexOutOfBoundsException if the {@code target} doesn't have
+     * enough room.
+     */
+    static int encodeBase64(final byte[] input, final byte[] target,
+                            final int offset) {
+        if (input == null) {
+            throw new NullPointerException("null input");
+        }
+        final int encoded = encodedLength(input.length);
+        _Sink.checkRange(target.length, offset, encoded);
+        encode(input, target, offset);
+        return encoded;
     }
 
     /**
@@ -96,10 +243,229 @@ final class _Base64 {
         if (input == null) {
             throw new NullPointerException("null input");
         }
+        // the characters are all US-ASCII; no need to look up a charset
+        final char[] output = new char[encodedLength(input.length)];
+        encode(input, output, 0);
+        return new String(output);
+    }
+
+    // ---------------------------------------------------------- encode+percent
+    /**
+     * A sink discards everything put.
+     */
+    private static final _Sink DISCARD = new _Sink() {
+        @Override
+        void put(final int c) {
+        }
+    };
+
+    private static int putPercent(final int sextet, final _Sink sink)
+            throws IOException {
+        if (sextet < 62) {
+            sink.put(ENCODE[sextet]);
+            return 1;
+        }
+        sink.put('%');
+        sink.put('2');
+        sink.put(sextet == 62 ? 'B' : 'F'); // %2B('+') or %2F('/')
+        return 3;
+    }
+
+    private static int putPercentPad(final _Sink sink) throws IOException {
+        sink.put('%');
+        sink.put('3');
+        sink.put('D'); // %3D('=')
+        return 3;
+    }
+
+    /**
+     * Encodes given input and percent-encodes the output in a single pass.
+     *
+     * @param input the input
+     * @param sink the sink
+     * @return the number of characters put.
+     * @throws IOException if an I/O error occurs.
+     */
+    private static int encodePercent(final byte[] input, final _Sink sink)
+            throws IOException {
+        int count = 0;
+        for (int i = 0; i < input.length; i += 3) {
+            final int remaining = input.length - i;
+            final int word = (input[i] & 0xFF) << 16
+                             | (remaining > 1 ? (input[i + 1] & 0xFF) << 8 : 0)
+                             | (remaining > 2 ? input[i + 2] & 0xFF : 0);
+            count += putPercent((word >>> 18) & 0x3F, sink);
+            count += putPercent((word >>> 12) & 0x3F, sink);
+            count += remaining > 1
+                     ? putPercent((word >>> 6) & 0x3F, sink)
+                     : putPercentPad(sink);
+            count += remaining > 2
+                     ? putPercent(word & 0x3F, sink) : putPercentPad(sink);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of characters of the percent-encoded form of the
+     * encoded form of given input.
+     *
+     * @param input the input
+     * @return the number of characters.
+     */
+    static int encodedPercentLength(final byte[] input) {
+        if (input == null) {
+            throw new NullPointerException("null input");
+        }
+        try {
+            return encodePercent(input, DISCARD);
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+    }
+
+    /**
+     * Encodes given input and puts the percent-encoded form of the output to
+     * given sink.
+     *
+     * @param input the input
+     * @param sink the sink
+     * @return the number of characters put.
+     * @throws IOException if an I/O error occurs.
+     * @see #encodedPercentLength(byte[])
+     */
+    static int encodeBase64Percent(final byte[] input, final _Sink sink)
+            throws IOException {
+        if (input == null) {
+            throw new NullPointerException("null input");
+        }
+        return encodePercent(input, sink);
+    }
+
+    /**
+     * Encodes given input and appends the percent-encoded form of the output
+     * to given appendable without building the intermediate output.
+     *
+     * @param input the input
+     * @param target the appendable
+     * @return the number of characters appended.
+     * @throws IOException if an I/O error occurs.
+     */
+    static int encodeBase64Percent(final byte[] input,
+                                   final Appendable target)
+            throws IOException {
+        if (input == null) {
+            throw new NullPointerException("null input");
+        }
+        return encodePercent(input, _Sink.of(target));
+    }
+
+    /**
+     * Encodes given input and appends the percent-encoded form of the output
+     * to given string builder without building the intermediate output.
+     *
+     * @param input the input
+     * @param target the string builder
+     * @return the number of characters appended.
+     */
+    static int encodeBase64Percent(final byte[] input,
+                                   final StringBuilder target) {
+        try {
+            return encodeBase64Percent(input, (Appendable) target);
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+    }
+
+    /**
+     * Encodes given input and puts the percent-encoded form of the output to
+     * given buffer. Nothing is put if the buffer doesn't have enough room.
+     *
+     * @param input the input
+     * @param target the buffer
+     * @return the number of bytes put.
+     * @throws java.nio.BufferOverflowException if the {@code target} doesn't
+     * have enough room.
+     */
+    static int encodeBase64Percent(final byte[] input,
+                                   final ByteBuffer target) {
+        if (encodedPercentLength(input) > target.remaining()) {
+            throw new BufferOverflowException();
+        }
+        try {
+            return encodePercent(input, _Sink.of(target));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+    }
+
+    /**
+     * Encodes given input and sets the percent-encoded form of the output to
+     * given array starting at given offset. Nothing is set if the array
+     * doesn't have enough room.
+     *
+     * @param input the input
+     * @param target the array
+     * @param offset the offset in {@code target}
+     * @return the number of bytes set.
+     * @throws IndexOutOfBoundsException if the {@code target} doesn't have
+     * enough room.
+     */
+    static int encodeBase64Percent(final byte[] input, final byte[] target,
+                                   final int offset) {
+        _Sink.checkRange(target.length, offset, encodedPercentLength(input));
         try {
-            return new String(encodeBase64(input), "ISO-8859-1");
-        } catch (final UnsupportedEncodingException uee) {
-            throw new RuntimeException(uee.getMessage());
+            return encodePercent(input, _Sink.of(target, offset));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+    }
+
+    /**
+     * Encodes given input and appends the form-urlencoded form of the output
+     * to given string builder. Since the form-urlencoding escapes the same
+     * characters of the Base64 alphabet, {@code +} and {@code /}, and the pad
+     * as the percent-encoding does, the result is the same as
+     * {@link #encodeBase64Percent(byte[], java.lang.StringBuilder)}.
+     *
+     * @param input the input
+     * @param target the string builder
+     * @return the number of characters appended.
+     */
+    static int encodeBase64Formurl(final byte[] input,
+                                   final StringBuilder target) {
+        return encodeBase64Percent(input, target);
+    }
+
+    // ------------------------------------------------------------------ decode
+    /**
+     * Returns the value of given alphabet character.
+     *
+     * @param c the character
+     * @param index the index of the character in its input
+     * @return the value of {@code c}
+     * @throws IllegalArgumentException if {@code c} is not in the alphabet.
+     */
+    private static int decode(final int c, final int index) {
+        final int value = (c & ~0x7F) == 0 ? DECODE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException(
+                    "illegal character(" + c + ") at " + index);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of padding characters of an input of given length
+     * ending with given two characters.
+     */
+    private static int pads(final int c2, final int c1) {
+        return c1 == PAD ? (c2 == PAD ? 2 : 1) : 0;
+    }
+
+    private static void checkLength(final int length) {
+        if (length % 4 != 0) {
+            throw new IllegalArgumentException(
+                    "length(" + length + ") % 4 != 0");
         }
     }
 
@@ -108,38 +474,40 @@ final class _Base64 {
      *
      * @param input the input.
      * @return decoded output.
+     * @throws IllegalArgumentException if {@code input} is not a valid,
+     * padded encoding.
      */
     static byte[] decodeBase64(final byte[] input) {
         if (input == null) {
             throw new NullPointerException("null input");
         }
-        if (input.length == 0) {
+        final int length = input.length;
+        if (length == 0) {
             return new byte[0];
         }
-        final byte[] output
-                = new byte[input.length / 4 * 3
-                           - (input[input.length - 2] == PAD
-                              ? 2 : input[input.length - 1] == PAD ? 1 : 0)];
-        int index = 0; // output index
-        for (int i = 0; i < input.length; i += 4) {
-            int word = 0;
-            int pads = 0;
-            for (int j = 0; j < 4; j++) {
-                word <<= 6;
-                final int k = i + j;
-                if (input[k] == PAD) {
-                    pads++;
-                } else {
-                    word |= DECODE[input[k] - DELTA];
-                }
-            }
-            for (int j = 2; j >= 0; j--) {
-                if (pads-- <= 0) {
-                    output[index + j] = (byte) (word & 0xFF);
-                }
-                word >>= 8;
+        checkLength(length);
+        final int pads = pads(input[length - 2], input[length - 1]);
+        final byte[] output = new byte[length / 4 * 3 - pads];
+        final int limit = pads > 0 ? length - 4 : length;
+        int j = 0;
+        for (int i = 0; i < limit; i += 4) {
+            final int word = decode(input[i], i) << 18
+                             | decode(input[i + 1], i + 1) << 12
+                             | decode(input[i + 2], i + 2) << 6
+                             | decode(input[i + 3], i + 3);
+            output[j++] = (byte) (word >> 16);
+            output[j++] = (byte) (word >> 8);
+            output[j++] = (byte) word;
+        }
+        if (pads > 0) {
+            final int word = decode(input[limit], limit) << 18
+                             | decode(input[limit + 1], limit + 1) << 12
+                             | (pads == 1
+                                ? decode(input[limit + 2], limit + 2) << 6 : 0);
+            output[j++] = (byte) (word >> 16);
+            if (pads == 1) {
+                output[j] = (byte) (word >> 8);
             }
-            index += 3;
         }
         return output;
     }
@@ -149,16 +517,76 @@ final class _Base64 {
      *
      * @param input the input.
      * @return decoded output.
+     * @throws IllegalArgumentException if {@code input} is not a valid,
+     * padded encoding.
      */
     static byte[] decodeBase64(final String input) {
         if (input == null) {
             throw new NullPointerException("null input");
         }
-        try {
-            return decodeBase64(input.getBytes("ISO-8859-1"));
-        } catch (final UnsupportedEncodingException uee) {
-            throw new RuntimeException(uee.getMessage());
+        final int length = input.length();
+        if (length == 0) {
+            return new byte[0];
+        }
+        checkLength(length);
+        final byte[] output = new byte[length / 4 * 3 - pads(
+                input.charAt(length - 2), input.charAt(length - 1))];
+        decodeBase64(input, output, 0);
+        return output;
+    }
+
+    /**
+     * Decodes given input into given array starting at given offset.
+     *
+     * @param input the input.
+     * @param target the array to which decoded bytes are written.
+     * @param offset the offset in {@code target}.
+     * @return the number of bytes decoded.
+     * @throws IllegalArgumentException if {@code input} is not a valid,
+     * padded encoding.
+     * @throws IndexOutOfBoundsException if {@code target} has not enough room
+     * from {@code offset}.
+     */
+    static int decodeBase64(final CharSequence input, final byte[] target,
+                            final int offset) {
+        if (input == null) {
+            throw new NullPointerException("null input");
+        }
+        if (target == null) {
+            throw new NullPointerException("null target");
+        }
+        final int length = input.length();
+        if (length == 0) {
+            return 0;
+        }
+        checkLength(length);
+        final int pads = pads(input.charAt(length - 2),
+                              input.charAt(length - 1));
+        final int decoded = length / 4 * 3 - pads;
+        _Sink.checkRange(target.length, offset, decoded);
+        final int limit = pads > 0 ? length - 4 : length;
+        int j = offset;
+        for (int i = 0; i < limit; i += 4) {
+            final int word = decode(input.charAt(i), i) << 18
+                             | decode(input.charAt(i + 1), i + 1) << 12
+                             | decode(input.charAt(i + 2), i + 2) << 6
+                             | decode(input.charAt(i + 3), i + 3);
+            target[j++] = (byte) (word >> 16);
+            target[j++] = (byte) (word >> 8);
+            target[j++] = (byte) word;
+        }
+        if (pads > 0) {
+            final int word = decode(input.charAt(limit), limit) << 18
+                             | decode(input.charAt(limit + 1), limit + 1) << 12
+                             | (pads == 1
+                                ? decode(input.charAt(limit + 2), limit + 2) << 6
+                                : 0);
+            target[j++] = (byte) (word >> 16);
+            if (pads == 1) {
+                target[j] = (byte) (word >> 8);
+            }
         }
+        return decoded;
     }
 
     private _Base64() {
@@ -15,9 +15,14 @@
  */
 package com.github.jinahya.rfc5849;
 
+import static com.github.jinahya.rfc5849._Percent.encode;
+import static com.github.jinahya.rfc5849._Percent.encodedLength;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 /**
  * A class for encoding/decoding form-urlencoded.
@@ -26,26 +31,243 @@ import java.net.URLEncoder;
  */
 final class _Formurl {
 
-    static String encodeFormurl(final String decoded) {
+    /**
+     * The literal forms of {@code US-ASCII} characters for form-urlencoding;
+     * {@code 0} for those need to be escaped.
+     */
+    private static final char[] LITERALS = new char[0x80];
+
+    static {
+        for (int b = 0x30; b <= 0x39; b++) { // digits
+            LITERALS[b] = (char) b;
+        }
+        for (int b = 0x41; b <= 0x5A; b++) { // uppercase letters
+            LITERALS[b] = (char) b;
+            LITERALS[b + 0x20] = (char) (b + 0x20); // lowercase letters
+        }
+        LITERALS[0x2A] = '*';
+        LITERALS[0x2D] = '-';
+        LITERALS[0x2E] = '.';
+        LITERALS[0x5F] = '_';
+        LITERALS[0x20] = '+'; // ' '
+    }
+
+    /**
+     * The values of hex digits indexed by their {@code US-ASCII} values;
+     * {@code -1} for non-hex characters.
+     */
+    private static final byte[] HALVES = new byte[0x80];
+
+    static {
+        for (int b = 0; b < HALVES.length; b++) {
+            HALVES[b] = -1;
+        }
+        for (int b = 0; b < 10; b++) {
+            HALVES[0x30 + b] = (byte) b; // '0' ~ '9'
+        }
+        for (int b = 0; b < 6; b++) {
+            HALVES[0x41 + b] = (byte) (10 + b); // 'A' ~ 'F'
+            HALVES[0x61 + b] = (byte) (10 + b); // 'a' ~ 'f'
+        }
+    }
+
+    /**
+     * Form-urlencodes given character sequence in {@code UTF-8}. The result
+     * is the same as {@link URLEncoder#encode(java.lang.String, java.lang.String)}
+     * with {@code UTF-8}. The sequence's {@code toString()} is returned, which
+     * is the sequence itself for a {@link String}, if nothing needs to be
+     * encoded.
+     *
+     * @param decoded the character sequence to encode
+     * @return encoding result.
+     */
+    static String encodeFormurl(final CharSequence decoded) {
         if (decoded == null) {
             throw new NullPointerException("null decoded");
         }
+        final int length = decoded.length();
+        int i = 0;
+        for (char c; i < length && (c = decoded.charAt(i)) < 0x80
+                     && LITERALS[c] == c; i++) {
+        }
+        if (i == length) {
+            return decoded.toString();
+        }
+        final char[] target = new char[encodedLength(decoded, LITERALS)];
+        try {
+            encode(decoded, LITERALS, _Sink.of(target, 0));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return new String(target);
+    }
+
+    /**
+     * Form-urlencodes given character sequence and appends the result to
+     * given appendable.
+     *
+     * @param decoded the character sequence to encode
+     * @param target the appendable
+     * @return the number of characters appended.
+     * @throws IOException if an I/O error occurs.
+     */
+    static int encodeFormurl(final CharSequence decoded,
+                             final Appendable target)
+            throws IOException {
+        if (decoded == null) {
+            throw new NullPointerException("null decoded");
+        }
+        final int encoded = encodedLength(decoded, LITERALS);
+        encode(decoded, LITERALS, _Sink.of(target));
+        return encoded;
+    }
+
+    /**
+     * Form-urlencodes given character sequence and appends the result to
+     * given string builder.
+     *
+     * @param decoded the character sequence to encode
+     * @param target the string builder
+     * @return the number of characters appended.
+     */
+    static int encodeFormurl(final CharSequence decoded,
+                             final StringBuilder target) {
         try {
-            return URLEncoder.encode(decoded, "UTF-8");
-        } catch (final UnsupportedEncodingException uee) {
-            throw new RuntimeException(uee.getMessage());
+            return encodeFormurl(decoded, (Appendable) target);
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
         }
     }
 
+    /**
+     * Form-urlencodes given character sequence and puts the result to given
+     * buffer. Nothing is put if the buffer doesn't have enough room.
+     *
+     * @param decoded the character sequence to encode
+     * @param target the buffer
+     * @return the number of bytes put.
+     * @throws java.nio.BufferOverflowException if the {@code target} doesn't
+     * have enough room.
+     */
+    static int encodeFormurl(final CharSequence decoded,
+                             final ByteBuffer target) {
+        if (decoded == null) {
+            throw new NullPointerException("null decoded");
+        }
+        final int encoded = encodedLength(decoded, LITERALS);
+        if (encoded > target.remaining()) {
+            throw new BufferOverflowException();
+        }
+        try {
+            encode(decoded, LITERALS, _Sink.of(target));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return encoded;
+    }
+
+    /**
+     * Form-urlencodes given character sequence into given array starting at
+     * given offset. Nothing is set if the array doesn't have enough room.
+     *
+     * @param decoded the character sequence to encode
+     * @param target the array
+     * @param offset the offset in {@code target}
+     * @return the number of bytes set.
+     * @throws IndexOutOfBoundsException if the {@code target} doesn't have
+     * enough room.
+     */
+    static int encodeFormurl(final CharSequence decoded, final byte[] target,
+                             final int offset) {
+        if (decoded == null) {
+            throw new NullPointerException("null decoded");
+        }
+        final int encoded = encodedLength(decoded, LITERALS);
+        _Sink.checkRange(target.length, offset, encoded);
+        try {
+            encode(decoded, LITERALS, _Sink.of(target, offset));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return encoded;
+    }
+
+    private static int decodeHalf(final String encoded, final int index) {
+        final char c = encoded.charAt(index);
+        final int decoded = c < 0x80 ? HALVES[c] : -1;
+        if (decoded < 0) {
+            throw new IllegalArgumentException(
+                    "illegal hex character at " + index + " in " + encoded);
+        }
+        return decoded;
+    }
+
+    /**
+     * Form-urldecodes given string in {@code UTF-8}. The result is the same as
+     * {@link URLDecoder#decode(java.lang.String, java.lang.String)} with
+     * {@code UTF-8} for well-formed input. The string itself is returned if
+     * it contains neither {@code +} nor {@code %}.
+     *
+     * @param encoded the string to decode
+     * @return decoding result.
+     * @throws IllegalArgumentException if {@code encoded} contains an
+     * illegal or incomplete escape.
+     */
     static String decodeFormurl(final String encoded) {
         if (encoded == null) {
             throw new NullPointerException("null encoded");
         }
-        try {
-            return URLDecoder.decode(encoded, "UTF-8");
-        } catch (final UnsupportedEncodingException uee) {
-            throw new RuntimeException(uee.getMessage());
+        final int length = encoded.length();
+        int i = 0;
+        for (char c; i < length && (c = encoded.charAt(i)) != '+' && c != '%';
+             i++) {
+        }
+        if (i == length) {
+            return encoded;
+        }
+        final StringBuilder builder = new StringBuilder(length);
+        builder.append(encoded, 0, i);
+        byte[] bytes = null;
+        while (i < length) {
+            final char c = encoded.charAt(i);
+            if (c == '+') {
+                builder.append(' ');
+                i++;
+                continue;
+            }
+            if (c != '%') {
+                builder.append(c);
+                i++;
+                continue;
+            }
+            if (bytes == null) {
+                bytes = new byte[(length - i) / 3];
+            }
+            int count = 0;
+            boolean ascii = true;
+            for (; i < length && encoded.charAt(i) == '%'; i += 3) {
+                if (i + 2 >= length) {
+                    throw new IllegalArgumentException(
+                            "incomplete trailing escape in " + encoded);
+                }
+                final int b = (decodeHalf(encoded, i + 1) << 4)
+                              | decodeHalf(encoded, i + 2);
+                ascii &= b < 0x80;
+                bytes[count++] = (byte) b;
+            }
+            if (ascii) {
+                for (int j = 0; j < count; j++) {
+                    builder.append((char) bytes[j]);
+                }
+                continue;
+            }
+            try {
+                builder.append(new String(bytes, 0, count, "UTF-8"));
+            } catch (final UnsupportedEncodingException uee) {
+                throw new RuntimeException(uee.getMessage());
+            }
         }
+        return builder.toString();
     }
 
     private _Formurl() {
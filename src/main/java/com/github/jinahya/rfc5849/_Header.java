@@ -0,0 +1,228 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849._Base64.encodeBase64Percent;
+import static com.github.jinahya.rfc5849._Base64.encodedPercentLength;
+import static com.github.jinahya.rfc5849._Percent.encodePercent;
+import static com.github.jinahya.rfc5849._Percent.encodedPercentLength;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A writer for values of the {@code Authorization} header. The exact length of
+ * a header is computed in advance and the well-known parameter names, which
+ * never need to be percent-encoded, are emitted from precomputed templates.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ * @see <a href="https://tools.ietf.org/html/rfc5849#section-3.5.1">3.5.1.
+ * Authorization Header (RFC 5849)</a>
+ */
+final class _Header {
+
+    private static byte[] ascii(final String s) {
+        try {
+            return s.getBytes("US-ASCII");
+        } catch (final UnsupportedEncodingException uee) {
+            throw new RuntimeException(uee.getMessage());
+        }
+    }
+
+    private static final byte[] SCHEME
+            = ascii(OAuthProtocolParameters.AUTH_SCHEME);
+
+    private static final byte[] REALM = ascii(" realm=\"");
+
+    /**
+     * Templates of each well-known parameter name; {@code , name="}.
+     */
+    private static final Map<String, byte[]> NAMES
+            = new HashMap<String, byte[]>();
+
+    static {
+        for (final String name : new String[]{
+            OAuthConstants.OAUTH_CALLBACK,
+            OAuthConstants.OAUTH_CONSUMER_KEY,
+            OAuthConstants.OAUTH_NONCE,
+            OAuthConstants.OAUTH_SIGNATURE,
+            OAuthConstants.OAUTH_SIGNATURE_METHOD,
+            OAuthConstants.OAUTH_TIMESTAMP,
+            OAuthConstants.OAUTH_TOKEN,
+            OAuthConstants.OAUTH_VERIFIER,
+            OAuthConstants.OAUTH_VERSION}) {
+            NAMES.put(name, ascii(", " + name + "=\""));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    private static int valueLength(final Object value) {
+        if (value instanceof byte[]) {
+            return encodedPercentLength((byte[]) value);
+        }
+        return encodedPercentLength((String) value);
+    }
+
+    /**
+     * Returns the number of characters of the header.
+     *
+     * @param realm the realm; may be {@code null}
+     * @param parameters the protocol parameters whose values are either
+     * {@code String}s or raw bytes of the signature.
+     * @return the number of characters.
+     */
+    static int length(final String realm,
+                      final Map<String, Object> parameters) {
+        int length = SCHEME.length;
+        if (realm != null) {
+            length += REALM.length + realm.length() + 1;
+        }
+        for (final Entry<String, Object> entry : parameters.entrySet()) {
+            final byte[] name = NAMES.get(entry.getKey());
+            length += name != null
+                      ? name.length
+                      : encodedPercentLength(entry.getKey()) + 4;
+            length += valueLength(entry.getValue()) + 1;
+        }
+        if (realm == null && !parameters.isEmpty()) {
+            length--; // no leading comma
+        }
+        return length;
+    }
+
+    /**
+     * Writes the header to given sink.
+     *
+     * @param realm the realm; may be {@code null}
+     * @param parameters the protocol parameters
+     * @param sink the sink
+     * @throws IOException if an I/O error occurs.
+     */
+    static void write(final String realm,
+                      final Map<String, Object> parameters, final _Sink sink)
+            throws IOException {
+        sink.put(SCHEME, 0, SCHEME.length);
+        if (realm != null) {
+            sink.put(REALM, 0, REALM.length);
+            for (int i = 0; i < realm.length(); i++) {
+                sink.put(realm.charAt(i));
+            }
+            sink.put('"');
+        }
+        boolean first = realm == null;
+        for (final Entry<String, Object> entry : parameters.entrySet()) {
+            final byte[] name = NAMES.get(entry.getKey());
+            if (name != null) {
+                final int skip = first ? 1 : 0;
+                sink.put(name, skip, name.length - skip);
+            } else {
+                if (!first) {
+                    sink.put(',');
+                }
+                sink.put(' ');
+                encodePercent(entry.getKey(), sink);
+                sink.put('=');
+                sink.put('"');
+            }
+            first = false;
+            final Object value = entry.getValue();
+            if (value instanceof byte[]) {
+                encodeBase64Percent((byte[]) value, sink);
+            } else {
+                encodePercent((String) value, sink);
+            }
+            sink.put('"');
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Builds the header in an array of the exact length.
+     *
+     * @param realm the realm; may be {@code null}
+     * @param parameters the protocol parameters
+     * @return the header
+     */
+    static String toString(final String realm,
+                           final Map<String, Object> parameters) {
+        final char[] target = new char[length(realm, parameters)];
+        try {
+            write(realm, parameters, _Sink.of(target, 0));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return new String(target);
+    }
+
+    /**
+     * Puts the header to given buffer. Nothing is put if the buffer doesn't
+     * have enough room. Each character of the {@code realm} is put as its low
+     * byte.
+     *
+     * @param realm the realm; may be {@code null}
+     * @param parameters the protocol parameters
+     * @param target the buffer
+     * @return the number of bytes put.
+     * @throws BufferOverflowException if the {@code target} doesn't have
+     * enough room.
+     */
+    static int write(final String realm, final Map<String, Object> parameters,
+                     final ByteBuffer target) {
+        final int length = length(realm, parameters);
+        if (length > target.remaining()) {
+            throw new BufferOverflowException();
+        }
+        try {
+            write(realm, parameters, _Sink.of(target));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return length;
+    }
+
+    /**
+     * Sets the header to given array starting at given offset. Nothing is set
+     * if the array doesn't have enough room. Each character of the
+     * {@code realm} is set as its low byte.
+     *
+     * @param realm the realm; may be {@code null}
+     * @param parameters the protocol parameters
+     * @param target the array
+     * @param offset the offset in {@code target}
+     * @return the number of bytes set.
+     * @throws IndexOutOfBoundsException if the {@code target} doesn't have
+     * enough room.
+     */
+    static int write(final String realm, final Map<String, Object> parameters,
+                     final byte[] target, final int offset) {
+        final int length = length(realm, parameters);
+        _Sink.checkRange(target.length, offset, length);
+        try {
+            write(realm, parameters, _Sink.of(target, offset));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return length;
+    }
+
+    private _Header() {
+        super();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+/**
+ * A small, identity-keyed, least-recently-used map. Instances of this class
+ * are not thread-safe and meant to be held by a single, thread-confined,
+ * owner.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ * @param <K> key type parameter
+ * @param <V> value type parameter
+ */
+final class _Lru<K, V> {
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity the maximum number of entries.
+     */
+    _Lru(final int capacity) {
+        super();
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "capacity(" + capacity + ") <= 0");
+        }
+        keys = new Object[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Returns the value mapped to given key, compared by identity, and marks
+     * the entry as the most recently used.
+     *
+     * @param key the key
+     * @return the value mapped to the {@code key} or {@code null} if absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(final K key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != key) {
+                continue;
+            }
+            final Object value = values[i];
+            System.arraycopy(keys, 0, keys, 1, i);
+            System.arraycopy(values, 0, values, 1, i);
+            keys[0] = key;
+            values[0] = value;
+            return (V) value;
+        }
+        return null;
+    }
+
+    /**
+     * Maps given value to given key as the most recently used entry. The
+     * least recently used entry is discarded if the capacity exceeded. This
+     * method doesn't check whether the key is already mapped.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void put(final K key, final V value) {
+        final int length = size < keys.length ? size : keys.length - 1;
+        System.arraycopy(keys, 0, keys, 1, length);
+        System.arraycopy(values, 0, values, 1, length);
+        keys[0] = key;
+        values[0] = value;
+        size = length + 1;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries.
+     */
+    int size() {
+        return size;
+    }
+
+    private final Object[] keys;
+
+    private final Object[] values;
+
+    private int size;
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A message to be signed which writes its bytes incrementally to signature
+ * engines.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+abstract class _Message {
+
+    /**
+     * Returns a message of given bytes.
+     *
+     * @param bytes the bytes
+     * @return a message of {@code bytes}
+     */
+    static _Message of(final byte[] bytes) {
+        if (bytes == null) {
+            throw new NullPointerException("null bytes");
+        }
+        return new _Message() {
+            @Override
+            void write(final OutputStream output) throws IOException {
+                output.write(bytes);
+            }
+        };
+    }
+
+    /**
+     * Returns a message of the whole signature base string of given base
+     * string.
+     *
+     * @param baseString the base string
+     * @return a message of the signature base string
+     * @see OAuthBaseString#write(java.io.OutputStream)
+     */
+    static _Message of(final OAuthBaseString baseString) {
+        if (baseString == null) {
+            throw new NullPointerException("null baseString");
+        }
+        return new _Message() {
+            @Override
+            void write(final OutputStream output) throws IOException {
+                baseString.write(output);
+            }
+        };
+    }
+
+    /**
+     * Returns a message of the trailing part of the signature base string of
+     * given base string.
+     *
+     * @param baseString the base string
+     * @return a message of the trailing part of the signature base string
+     * @see OAuthBaseString#writeSuffix(java.io.OutputStream)
+     */
+    static _Message suffixOf(final OAuthBaseString baseString) {
+        if (baseString == null) {
+            throw new NullPointerException("null baseString");
+        }
+        return new _Message() {
+            @Override
+            void write(final OutputStream output) throws IOException {
+                baseString.writeSuffix(output);
+            }
+        };
+    }
+
+    /**
+     * Writes bytes of this message to given output.
+     *
+     * @param output the output
+     * @throws IOException if an I/O error occurs.
+     */
+    abstract void write(OutputStream output) throws IOException;
+}
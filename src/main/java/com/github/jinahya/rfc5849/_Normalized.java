@@ -0,0 +1,385 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849._Hex.encodeHexSingle;
+import static com.github.jinahya.rfc5849._Percent.unreserved;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+
+/**
+ * Normalized request parameters held in a flat byte array. Each key and value
+ * is stored as its raw {@code UTF-8} bytes, entries are sorted in the order of
+ * their percent-encoded forms, and the twice percent-encoded form of the
+ * normalized parameters is emitted in a single pass.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ * @see <a href="https://tools.ietf.org/html/rfc5849#section-3.4.1.3.2">3.4.1.3.2.
+ * Parameters Normalization (RFC 5849)</a>
+ */
+final class _Normalized {
+
+    private static final byte[] AMPERSAND = {0x25, 0x32, 0x36}; // %26
+
+    private static final byte[] EQUALS = {0x25, 0x33, 0x44}; // %3D
+
+    /**
+     * The twice percent-encoded forms of each byte. An unreserved byte stays
+     * as is while any other byte becomes {@code %25XY}.
+     */
+    private static final byte[][] ESCAPES = new byte[256][];
+
+    /**
+     * The sort ranks of each byte. Since {@code %} precedes every unreserved
+     * character, a percent-encoded byte precedes any unreserved byte and
+     * percent-encoded bytes are ordered by their upper-case hex digits.
+     */
+    private static final int[] RANKS = new int[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            if (unreserved(b)) {
+                ESCAPES[b] = new byte[]{(byte) b};
+                RANKS[b] = 0x100 | b;
+                continue;
+            }
+            ESCAPES[b] = new byte[]{0x25, 0x32, 0x35, 0x00, 0x00};
+            encodeHexSingle(b, ESCAPES[b], 3);
+            RANKS[b] = b;
+        }
+    }
+
+    /**
+     * The number of ints for each entry in {@link #segments}; the offset, the
+     * length and the encoded length of the key followed by those of the
+     * value.
+     */
+    private static final int STRIDE = 6;
+
+    private static final int CHUNK = 512;
+
+    // ------------------------------------------------------------ constructors
+    /**
+     * Creates a new instance which merges given request parameters into the
+     * already encoded and sorted entries of given base instance. An entry of
+     * the base instance is dropped if its key is a protocol parameter key
+     * which is also in {@code parameters}. The base instance is not modified.
+     * The bytes of each distinct key are stored once and shared by all
+     * entries of the key.
+     *
+     * @param base the base instance; may be {@code null}
+     * @param parameters the request parameters to merge
+     */
+    _Normalized(final _Normalized base, final _Parameters parameters) {
+        super();
+        final int inherited = base == null ? 0 : base.entries;
+        final int added = parameters.size();
+        entries = inherited + added;
+        segments = new int[entries * STRIDE];
+        keys = new String[entries];
+        bytes = new byte[(base == null ? 0 : base.size) + added * 16];
+        if (base != null) {
+            System.arraycopy(base.bytes, 0, bytes, 0, base.size);
+            System.arraycopy(base.segments, 0, segments, 0,
+                             inherited * STRIDE);
+            System.arraycopy(base.keys, 0, keys, 0, inherited);
+            size = base.size;
+        }
+        // the offset, the length and the encoded length of each name's key
+        final int[] names = new int[parameters.names() * 3];
+        Arrays.fill(names, -1);
+        for (int p = 0; p < added; p++) {
+            final int n = parameters.name(p) * 3;
+            if (names[n] == -1) {
+                final int keyOffset = size;
+                names[n + 2] = append(parameters.key(p));
+                names[n] = keyOffset;
+                names[n + 1] = size - keyOffset;
+            }
+            final int valueOffset = size;
+            final int valueEncoded = append(parameters.value(p));
+            final int valueLength = size - valueOffset;
+            final int entry = inherited + p;
+            final int i = entry * STRIDE;
+            segments[i] = names[n];
+            segments[i + 1] = names[n + 1];
+            segments[i + 2] = names[n + 2];
+            segments[i + 3] = valueOffset;
+            segments[i + 4] = valueLength;
+            segments[i + 5] = valueEncoded;
+            keys[entry] = parameters.key(p);
+        }
+        final int[] sorted = new int[added];
+        for (int i = 0; i < added; i++) {
+            sorted[i] = inherited + i;
+        }
+        sort(sorted, new int[added], 0, added);
+        order = new int[entries];
+        int count = 0;
+        final int merged = base == null ? 0 : base.count;
+        for (int i = 0, j = 0; i < merged || j < added;) {
+            if (i < merged) {
+                final int b = base.order[i];
+                final String key = keys[b];
+                if (key.startsWith(OAuthBaseString.PROTOCOL_PARAMETER_PREFIX)
+                    && parameters.containsKey(key)) {
+                    i++; // replaced
+                    continue;
+                }
+                if (j == added || compare(b, sorted[j]) <= 0) {
+                    order[count++] = b;
+                    i++;
+                    continue;
+                }
+            }
+            order[count++] = sorted[j++];
+        }
+        this.count = count;
+        int length = count > 0 ? (count - 1) * AMPERSAND.length : 0;
+        for (int k = 0; k < count; k++) {
+            final int i = order[k] * STRIDE;
+            length += segments[i + 2] + EQUALS.length + segments[i + 5];
+        }
+        this.length = length;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Appends {@code UTF-8} bytes of given string to {@link #bytes}.
+     *
+     * @param s the string to append
+     * @return the number of bytes of the twice percent-encoded form.
+     */
+    private int append(final String s) {
+        final byte[] decoded;
+        try {
+            decoded = s.getBytes("UTF-8");
+        } catch (final UnsupportedEncodingException uee) {
+            throw new RuntimeException(uee.getMessage());
+        }
+        if (bytes.length - size < decoded.length) {
+            final byte[] bytes_ = new byte[
+                    Math.max(bytes.length * 2, size + decoded.length)];
+            System.arraycopy(bytes, 0, bytes_, 0, size);
+            bytes = bytes_;
+        }
+        int encoded = 0;
+        for (int i = 0; i < decoded.length; i++) {
+            encoded += ESCAPES[decoded[i] & 0xFF].length;
+        }
+        System.arraycopy(decoded, 0, bytes, size, decoded.length);
+        size += decoded.length;
+        return encoded;
+    }
+
+    /**
+     * Compares two entries by their keys and then by their values.
+     */
+    private int compare(final int entry1, final int entry2) {
+        final int i = entry1 * STRIDE;
+        final int j = entry2 * STRIDE;
+        final int c = compare(segments[i], segments[i + 1],
+                              segments[j], segments[j + 1]);
+        if (c != 0) {
+            return c;
+        }
+        return compare(segments[i + 3], segments[i + 4],
+                       segments[j + 3], segments[j + 4]);
+    }
+
+    private int compare(final int offset1, final int length1,
+                        final int offset2, final int length2) {
+        final int limit = Math.min(length1, length2);
+        for (int k = 0; k < limit; k++) {
+            final int c = RANKS[bytes[offset1 + k] & 0xFF]
+                          - RANKS[bytes[offset2 + k] & 0xFF];
+            if (c != 0) {
+                return c;
+            }
+        }
+        return length1 - length2;
+    }
+
+    /**
+     * Sorts the range of given indices using a stable merge sort.
+     */
+    private void sort(final int[] a, final int[] t, final int from,
+                      final int to) {
+        if (to - from < 2) {
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        sort(a, t, from, middle);
+        sort(a, t, middle, to);
+        if (compare(a[middle - 1], a[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(a, from, t, from, to - from);
+        for (int k = from, i = from, j = middle; k < to; k++) {
+            if (j >= to || (i < middle && compare(t[i], t[j]) <= 0)) {
+                a[k] = t[i++];
+            } else {
+                a[k] = t[j++];
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the number of bytes of the percent-encoded normalized
+     * parameters.
+     *
+     * @return the number of bytes
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Returns the percent-encoded normalized parameters in a new array whose
+     * length is exactly {@link #length()}.
+     *
+     * @return the percent-encoded normalized parameters
+     */
+    byte[] toByteArray() {
+        final byte[] buffer = new byte[length];
+        try {
+            emit(buffer, null);
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes the percent-encoded normalized parameters to given output.
+     *
+     * @param output the output
+     * @throws IOException if an I/O error occurs.
+     */
+    void write(final OutputStream output) throws IOException {
+        emit(new byte[Math.min(length, CHUNK)], output);
+    }
+
+    /**
+     * Emits the percent-encoded normalized parameters into given buffer which
+     * is flushed to given output whenever it is full.
+     *
+     * @param buffer the buffer
+     * @param output the output; may be {@code null} if the buffer is large
+     * enough.
+     * @throws IOException if an I/O error occurs.
+     */
+    private void emit(final byte[] buffer, final OutputStream output)
+            throws IOException {
+        int position = 0;
+        for (int k = 0; k < count; k++) {
+            final int i = order[k] * STRIDE;
+            if (k > 0) {
+                position = emit(AMPERSAND, 0, AMPERSAND.length, buffer,
+                                position, output);
+            }
+            position = encode(segments[i], segments[i + 1], buffer,
+                              position, output);
+            position = emit(EQUALS, 0, EQUALS.length, buffer, position,
+                            output);
+            position = encode(segments[i + 3], segments[i + 4], buffer,
+                              position, output);
+        }
+        if (output != null && position > 0) {
+            output.write(buffer, 0, position);
+        }
+    }
+
+    /**
+     * Percent-encodes given range of {@link #bytes} twice into given buffer.
+     */
+    private int encode(final int offset, final int length, final byte[] buffer,
+                       int position, final OutputStream output)
+            throws IOException {
+        final int limit = offset + length;
+        for (int i = offset; i < limit; i++) {
+            final byte[] escape = ESCAPES[bytes[i] & 0xFF];
+            if (buffer.length - position < escape.length) {
+                position = emit(escape, 0, escape.length, buffer, position,
+                                output);
+                continue;
+            }
+            for (int j = 0; j < escape.length; j++) {
+                buffer[position++] = escape[j];
+            }
+        }
+        return position;
+    }
+
+    private static int emit(final byte[] source, final int offset,
+                            final int length, final byte[] buffer,
+                            int position, final OutputStream output)
+            throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            if (position == buffer.length) {
+                output.write(buffer, 0, position);
+                position = 0;
+            }
+            buffer[position++] = source[i];
+        }
+        return position;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * The number of entries stored.
+     */
+    private final int entries;
+
+    /**
+     * The number of entries in {@link #order}.
+     */
+    private final int count;
+
+    /**
+     * The keys of each entry.
+     */
+    private final String[] keys;
+
+    /**
+     * The segments of each entry; {@value #STRIDE} ints for each entry.
+     */
+    private final int[] segments;
+
+    /**
+     * The sorted indices of the entries to emit; only the first
+     * {@link #count} indices are valid.
+     */
+    private final int[] order;
+
+    /**
+     * The number of bytes of the percent-encoded normalized parameters.
+     */
+    private final int length;
+
+    /**
+     * The {@code UTF-8} bytes of keys and values.
+     */
+    private byte[] bytes;
+
+    /**
+     * The number of bytes used in {@link #bytes}.
+     */
+    private int size;
+}
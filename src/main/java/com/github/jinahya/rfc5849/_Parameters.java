@@ -0,0 +1,324 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compact multimap of request parameters held in parallel arrays. Each
+ * distinct key is interned into a name table, indexed by an open-addressed
+ * hash table, and each entry is a pair of a name index and a value kept in
+ * the order of addition.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+final class _Parameters {
+
+    /**
+     * Canonical instances of well-known keys.
+     */
+    private static final Map<String, String> KNOWN
+            = new HashMap<String, String>();
+
+    static {
+        for (final String name : new String[]{
+            OAuthConstants.OAUTH_CALLBACK,
+            OAuthConstants.OAUTH_CONSUMER_KEY,
+            OAuthConstants.OAUTH_NONCE,
+            OAuthConstants.OAUTH_SIGNATURE,
+            OAuthConstants.OAUTH_SIGNATURE_METHOD,
+            OAuthConstants.OAUTH_TIMESTAMP,
+            OAuthConstants.OAUTH_TOKEN,
+            OAuthConstants.OAUTH_VERIFIER,
+            OAuthConstants.OAUTH_VERSION}) {
+            KNOWN.put(name, name);
+        }
+    }
+
+    private static final int CAPACITY = 8;
+
+    private static int hash(final String key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // ------------------------------------------------------------ constructors
+    /**
+     * Creates a new empty instance.
+     */
+    _Parameters() {
+        super();
+        names = new String[CAPACITY];
+        counts = new int[CAPACITY];
+        table = new int[CAPACITY * 2];
+        entryNames = new int[CAPACITY];
+        entryValues = new String[CAPACITY];
+    }
+
+    // ------------------------------------------------------------------- names
+    /**
+     * Returns the slot of {@link #table} for given key; either the slot of
+     * the key or the empty slot where the key should be.
+     */
+    private int slot(final String key) {
+        final int mask = table.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            final int n = table[i];
+            if (n == 0 || names[n - 1].equals(key)) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Returns the name index of given key.
+     *
+     * @param key the key
+     * @return the name index of {@code key} or {@code -1} if not interned.
+     */
+    private int indexOf(final String key) {
+        return table[slot(key)] - 1;
+    }
+
+    /**
+     * Interns given key and returns its name index.
+     *
+     * @param key the key
+     * @return the name index of {@code key}
+     */
+    private int intern(final String key) {
+        final int slot = slot(key);
+        if (table[slot] != 0) {
+            return table[slot] - 1;
+        }
+        if (nameCount == names.length) {
+            final String[] names = new String[nameCount * 2];
+            System.arraycopy(this.names, 0, names, 0, nameCount);
+            this.names = names;
+            final int[] counts = new int[nameCount * 2];
+            System.arraycopy(this.counts, 0, counts, 0, nameCount);
+            this.counts = counts;
+        }
+        final String known = KNOWN.get(key);
+        names[nameCount] = known == null ? key : known;
+        table[slot] = ++nameCount;
+        if (nameCount * 2 > table.length) {
+            table = new int[table.length * 2];
+            final int mask = table.length - 1;
+            for (int n = 0; n < nameCount; n++) {
+                int i = hash(names[n]) & mask;
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = n + 1;
+            }
+        }
+        return nameCount - 1;
+    }
+
+    /**
+     * Returns the number of distinct keys ever added since created or
+     * cleared. Name indices are less than this value.
+     *
+     * @return the number of names
+     */
+    int names() {
+        return nameCount;
+    }
+
+    // ----------------------------------------------------------------- entries
+    private void append(final int name, final String value) {
+        if (size == entryNames.length) {
+            final int[] entryNames = new int[size * 2];
+            System.arraycopy(this.entryNames, 0, entryNames, 0, size);
+            this.entryNames = entryNames;
+            final String[] entryValues = new String[size * 2];
+            System.arraycopy(this.entryValues, 0, entryValues, 0, size);
+            this.entryValues = entryValues;
+        }
+        entryNames[size] = name;
+        entryValues[size] = value;
+        size++;
+        counts[name]++;
+    }
+
+    private void removeEntries(final int name) {
+        if (counts[name] == 0) {
+            return;
+        }
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (entryNames[i] != name) {
+                entryNames[j] = entryNames[i];
+                entryValues[j] = entryValues[i];
+                j++;
+            }
+        }
+        Arrays.fill(entryValues, j, size, null);
+        size = j;
+        counts[name] = 0;
+    }
+
+    /**
+     * Adds an entry of given key and value.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void add(final String key, final String value) {
+        append(intern(key), value);
+    }
+
+    /**
+     * Replaces all entries of given key with an entry of given value.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void put(final String key, final String value) {
+        final int name = intern(key);
+        removeEntries(name);
+        append(name, value);
+    }
+
+    /**
+     * Removes all entries of given key.
+     *
+     * @param key the key
+     */
+    void remove(final String key) {
+        final int name = indexOf(key);
+        if (name >= 0) {
+            removeEntries(name);
+        }
+    }
+
+    /**
+     * Checks whether any entry of given key exists.
+     *
+     * @param key the key
+     * @return {@code true} if exists; {@code false} otherwise.
+     */
+    boolean containsKey(final String key) {
+        final int name = indexOf(key);
+        return name >= 0 && counts[name] > 0;
+    }
+
+    /**
+     * Returns the value of the first entry of given key.
+     *
+     * @param key the key
+     * @return the first value of {@code key} or {@code null}
+     */
+    String first(final String key) {
+        final int name = indexOf(key);
+        if (name >= 0 && counts[name] > 0) {
+            for (int i = 0; i < size; i++) {
+                if (entryNames[i] == name) {
+                    return entryValues[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all entries and names. Internal arrays are kept.
+     */
+    void clear() {
+        Arrays.fill(entryValues, 0, size, null);
+        size = 0;
+        Arrays.fill(names, 0, nameCount, null);
+        Arrays.fill(counts, 0, nameCount, 0);
+        Arrays.fill(table, 0);
+        nameCount = 0;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the name index of the entry at given index.
+     *
+     * @param index the entry index
+     * @return the name index
+     */
+    int name(final int index) {
+        return entryNames[index];
+    }
+
+    /**
+     * Returns the key of the entry at given index.
+     *
+     * @param index the entry index
+     * @return the key
+     */
+    String key(final int index) {
+        return names[entryNames[index]];
+    }
+
+    /**
+     * Returns the value of the entry at given index.
+     *
+     * @param index the entry index
+     * @return the value
+     */
+    String value(final int index) {
+        return entryValues[index];
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * The interned keys.
+     */
+    private String[] names;
+
+    /**
+     * The number of entries of each name.
+     */
+    private int[] counts;
+
+    private int nameCount;
+
+    /**
+     * The open-addressed hash table of name indices plus one; {@code 0} for
+     * empty slots.
+     */
+    private int[] table;
+
+    /**
+     * The name index of each entry.
+     */
+    private int[] entryNames;
+
+    /**
+     * The value of each entry.
+     */
+    private String[] entryValues;
+
+    /**
+     * The number of entries.
+     */
+    private int size;
+}
@@ -16,8 +16,10 @@
 package com.github.jinahya.rfc5849;
 
 import static com.github.jinahya.rfc5849._Hex.decodeHexSingle;
-import static com.github.jinahya.rfc5849._Hex.encodeHexSingle;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 /**
  * A class for encoding/decoding percent.
@@ -26,14 +28,45 @@ import java.io.UnsupportedEncodingException;
  */
 final class _Percent {
 
-    private static boolean unreserved(final int b) {
-        return (b >= 0x30 && b <= 0x39) // digits
-               || (b >= 0x41 && b <= 0x5A) // uppercase letters
-               || (b >= 0x61 && b <= 0x7A) // lowercase letters
-               || b == 0x2D // '-'
-               || b == 0x2E // '.'
-               || b == 0x5F // '_'
-               || b == 0x7E; // '~'
+    /**
+     * Flags for unreserved characters indexed by their {@code US-ASCII}
+     * values.
+     */
+    private static final boolean[] UNRESERVED = new boolean[0x80];
+
+    /**
+     * The literal forms of {@code US-ASCII} characters for percent-encoding;
+     * {@code 0} for those need to be escaped.
+     */
+    private static final char[] LITERALS = new char[0x80];
+
+    /**
+     * Upper-case hex digits.
+     */
+    private static final char[] HEX = {
+        '0', '1', '2', '3', '4', '5', '6', '7',
+        '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+    };
+
+    static {
+        for (int b = 0x30; b <= 0x39; b++) { // digits
+            UNRESERVED[b] = true;
+        }
+        for (int b = 0x41; b <= 0x5A; b++) { // uppercase letters
+            UNRESERVED[b] = true;
+            UNRESERVED[b + 0x20] = true; // lowercase letters
+        }
+        UNRESERVED[0x2D] = true; // '-'
+        UNRESERVED[0x2E] = true; // '.'
+        UNRESERVED[0x5F] = true; // '_'
+        UNRESERVED[0x7E] = true; // '~'
+        for (int b = 0; b < LITERALS.length; b++) {
+            LITERALS[b] = UNRESERVED[b] ? (char) b : 0;
+        }
+    }
+
+    static boolean unreserved(final int b) {
+        return (b & ~0x7F) == 0 && UNRESERVED[b];
     }
 
     static String encodePercent(final String s, final String enc)
@@ -45,36 +78,260 @@ final class _Percent {
             throw new NullPointerException("null enc");
         }
         final byte[] source = s.getBytes(enc);
-        final byte[] auxiliary = new byte[source.length * 3];
+        int escapes = 0;
+        for (int i = 0; i < source.length; i++) {
+            if (!unreserved(source[i])) {
+                escapes++;
+            }
+        }
+        final char[] target = new char[source.length + escapes * 2];
         int j = 0;
         for (int i = 0; i < source.length; i++) {
             if (unreserved(source[i])) {
-                auxiliary[j++] = source[i];
+                target[j++] = (char) source[i];
                 continue;
             }
-            auxiliary[j++] = 0x25;
-            encodeHexSingle(source[i], auxiliary, j);
-            j += 2;
+            target[j++] = '%';
+            target[j++] = HEX[(source[i] >> 4) & 0x0F];
+            target[j++] = HEX[source[i] & 0x0F];
+        }
+        return new String(target);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the number of characters of the encoded form of given character
+     * sequence. Characters are encoded in {@code UTF-8}, walking surrogate
+     * pairs as single code points and malformed surrogates as {@code ?}, just
+     * like {@link String#getBytes(java.lang.String)} does.
+     *
+     * @param s the character sequence
+     * @param literals the literal forms of {@code US-ASCII} characters;
+     * {@code 0} for those need to be escaped.
+     * @return the number of encoded characters.
+     */
+    static int encodedLength(final CharSequence s, final char[] literals) {
+        final int length = s.length();
+        int encoded = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                encoded += literals[c] != 0 ? 1 : 3;
+            } else if (c < 0x800) {
+                encoded += 6;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                       && Character.isLowSurrogate(s.charAt(i + 1))) {
+                encoded += 12;
+                i++;
+            } else if (Character.isHighSurrogate(c)
+                       || Character.isLowSurrogate(c)) {
+                encoded += 3; // %3F
+            } else {
+                encoded += 9;
+            }
+        }
+        return encoded;
+    }
+
+    private static void escape(final int b, final _Sink sink)
+            throws IOException {
+        sink.put('%');
+        sink.put(HEX[(b >> 4) & 0x0F]);
+        sink.put(HEX[b & 0x0F]);
+    }
+
+    /**
+     * Encodes given character sequence in {@code UTF-8} to given sink without
+     * encoding it into bytes in advance.
+     *
+     * @param s the character sequence
+     * @param literals the literal forms of {@code US-ASCII} characters;
+     * {@code 0} for those need to be escaped.
+     * @param sink the sink
+     * @throws IOException if an I/O error occurs.
+     * @see #encodedLength(java.lang.CharSequence, char[])
+     */
+    static void encode(final CharSequence s, final char[] literals,
+                       final _Sink sink)
+            throws IOException {
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                if (literals[c] != 0) {
+                    sink.put(literals[c]);
+                } else {
+                    escape(c, sink);
+                }
+            } else if (c < 0x800) {
+                escape(0xC0 | (c >> 6), sink);
+                escape(0x80 | (c & 0x3F), sink);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                       && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int p = Character.toCodePoint(c, s.charAt(++i));
+                escape(0xF0 | (p >> 18), sink);
+                escape(0x80 | ((p >> 12) & 0x3F), sink);
+                escape(0x80 | ((p >> 6) & 0x3F), sink);
+                escape(0x80 | (p & 0x3F), sink);
+            } else if (Character.isHighSurrogate(c)
+                       || Character.isLowSurrogate(c)) {
+                escape('?', sink);
+            } else {
+                escape(0xE0 | (c >> 12), sink);
+                escape(0x80 | ((c >> 6) & 0x3F), sink);
+                escape(0x80 | (c & 0x3F), sink);
+            }
         }
-        final byte[] target = new byte[j];
-        System.arraycopy(auxiliary, 0, target, 0, j);
-        return new String(target, "US-ASCII");
     }
 
     /**
-     * Percent-encodes given string.
+     * Returns the number of characters of the percent-encoded form of given
+     * character sequence.
      *
-     * @param s the string to encode
+     * @param s the character sequence
+     * @return the number of percent-encoded characters.
+     */
+    static int encodedPercentLength(final CharSequence s) {
+        if (s == null) {
+            throw new NullPointerException("null decoded");
+        }
+        return encodedLength(s, LITERALS);
+    }
+
+    /**
+     * Percent-encodes given character sequence to given sink.
+     *
+     * @param s the character sequence to encode
+     * @param sink the sink
+     * @throws IOException if an I/O error occurs.
+     * @see #encodedPercentLength(java.lang.CharSequence)
+     */
+    static void encodePercent(final CharSequence s, final _Sink sink)
+            throws IOException {
+        if (s == null) {
+            throw new NullPointerException("null decoded");
+        }
+        encode(s, LITERALS, sink);
+    }
+
+    /**
+     * Percent-encodes given character sequence in {@code UTF-8} without
+     * encoding it into bytes in advance. The sequence's {@code toString()} is
+     * returned, which is the sequence itself for a {@link String}, if it
+     * consists of unreserved characters only.
+     *
+     * @param s the character sequence to encode
      * @return encoding result.
      */
-    static String encodePercent(final String s) {
+    static String encodePercent(final CharSequence s) {
+        if (s == null) {
+            throw new NullPointerException("null decoded");
+        }
+        final int encoded = encodedLength(s, LITERALS);
+        if (encoded == s.length()) {
+            return s.toString();
+        }
+        final char[] target = new char[encoded];
         try {
-            return encodePercent(s, "UTF-8");
-        } catch (final UnsupportedEncodingException uee) {
-            throw new RuntimeException(uee.getMessage());
+            encode(s, LITERALS, _Sink.of(target, 0));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return new String(target);
+    }
+
+    /**
+     * Percent-encodes given character sequence and appends the result to
+     * given appendable.
+     *
+     * @param s the character sequence to encode
+     * @param target the appendable
+     * @return the number of characters appended.
+     * @throws IOException if an I/O error occurs.
+     */
+    static int encodePercent(final CharSequence s, final Appendable target)
+            throws IOException {
+        if (s == null) {
+            throw new NullPointerException("null decoded");
+        }
+        final int encoded = encodedLength(s, LITERALS);
+        if (encoded == s.length()) {
+            target.append(s);
+            return encoded;
+        }
+        encode(s, LITERALS, _Sink.of(target));
+        return encoded;
+    }
+
+    /**
+     * Percent-encodes given character sequence and appends the result to
+     * given string builder.
+     *
+     * @param s the character sequence to encode
+     * @param target the string builder
+     * @return the number of characters appended.
+     */
+    static int encodePercent(final CharSequence s, final StringBuilder target) {
+        try {
+            return encodePercent(s, (Appendable) target);
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+    }
+
+    /**
+     * Percent-encodes given character sequence and puts the result to given
+     * buffer. Nothing is put if the buffer doesn't have enough room.
+     *
+     * @param s the character sequence to encode
+     * @param target the buffer
+     * @return the number of bytes put.
+     * @throws java.nio.BufferOverflowException if the {@code target} doesn't
+     * have enough room.
+     */
+    static int encodePercent(final CharSequence s, final ByteBuffer target) {
+        if (s == null) {
+            throw new NullPointerException("null decoded");
+        }
+        final int encoded = encodedLength(s, LITERALS);
+        if (encoded > target.remaining()) {
+            throw new BufferOverflowException();
+        }
+        try {
+            encode(s, LITERALS, _Sink.of(target));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
+        }
+        return encoded;
+    }
+
+    /**
+     * Percent-encodes given character sequence into given array starting at
+     * given offset. Nothing is set if the array doesn't have enough room.
+     *
+     * @param s the character sequence to encode
+     * @param target the array
+     * @param offset the offset in {@code target}
+     * @return the number of bytes set.
+     * @throws IndexOutOfBoundsException if the {@code target} doesn't have
+     * enough room.
+     */
+    static int encodePercent(final CharSequence s, final byte[] target,
+                             final int offset) {
+        if (s == null) {
+            throw new NullPointerException("null decoded");
+        }
+        final int encoded = encodedLength(s, LITERALS);
+        _Sink.checkRange(target.length, offset, encoded);
+        try {
+            encode(s, LITERALS, _Sink.of(target, offset));
+        } catch (final IOException ioe) {
+            throw new AssertionError(ioe);
         }
+        return encoded;
     }
 
+    // -------------------------------------------------------------------------
     static String decodePercent(final String s, final String enc)
             throws UnsupportedEncodingException {
         if (s == null) {
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A target to which encoders put {@code US-ASCII} characters one by one.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+abstract class _Sink {
+
+    /**
+     * Returns a sink appending characters to given appendable.
+     *
+     * @param target the appendable
+     * @return a sink of {@code target}
+     */
+    static _Sink of(final Appendable target) {
+        if (target == null) {
+            throw new NullPointerException("null target");
+        }
+        return new _Sink() {
+            @Override
+            void put(final int c) throws IOException {
+                target.append((char) c);
+            }
+        };
+    }
+
+    /**
+     * Returns a sink putting bytes to given buffer, starting at its current
+     * position.
+     *
+     * @param target the buffer
+     * @return a sink of {@code target}
+     */
+    static _Sink of(final ByteBuffer target) {
+        if (target == null) {
+            throw new NullPointerException("null target");
+        }
+        return new _Sink() {
+            @Override
+            void put(final int c) {
+                target.put((byte) c);
+            }
+
+            @Override
+            void put(final byte[] b, final int off, final int len) {
+                target.put(b, off, len);
+            }
+        };
+    }
+
+    /**
+     * Returns a sink setting bytes of given array, starting at given offset.
+     *
+     * @param target the array
+     * @param offset the offset
+     * @return a sink of {@code target}
+     */
+    static _Sink of(final byte[] target, final int offset) {
+        if (target == null) {
+            throw new NullPointerException("null target");
+        }
+        return new _Sink() {
+            @Override
+            void put(final int c) {
+                target[index++] = (byte) c;
+            }
+
+            @Override
+            void put(final byte[] b, final int off, final int len) {
+                System.arraycopy(b, off, target, index, len);
+                index += len;
+            }
+
+            private int index = offset;
+        };
+    }
+
+    /**
+     * Returns a sink setting characters of given array, starting at given
+     * offset.
+     *
+     * @param target the array
+     * @param offset the offset
+     * @return a sink of {@code target}
+     */
+    static _Sink of(final char[] target, final int offset) {
+        if (target == null) {
+            throw new NullPointerException("null target");
+        }
+        return new _Sink() {
+            @Override
+            void put(final int c) {
+                target[index++] = (char) c;
+            }
+
+            private int index = offset;
+        };
+    }
+
+    /**
+     * Checks whether given range fits in given length.
+     *
+     * @param length the length of the target
+     * @param offset the offset of the range
+     * @param count the length of the range
+     * @throws IndexOutOfBoundsException if the range doesn't fit.
+     */
+    static void checkRange(final int length, final int offset,
+                           final int count) {
+        if (offset < 0 || count > length - offset) {
+            throw new IndexOutOfBoundsException(
+                    "offset(" + offset + ") + count(" + count
+                    + ") > length(" + length + ")");
+        }
+    }
+
+    /**
+     * Puts given {@code US-ASCII} character.
+     *
+     * @param c the character
+     * @throws IOException if an I/O error occurs.
+     */
+    abstract void put(int c) throws IOException;
+
+    /**
+     * Puts {@code US-ASCII} characters in given range of given array.
+     *
+     * @param b the array
+     * @param off the offset of the range
+     * @param len the length of the range
+     * @throws IOException if an I/O error occurs.
+     */
+    void put(final byte[] b, final int off, final int len)
+            throws IOException {
+        for (int i = off; i < off + len; i++) {
+            put(b[i]);
+        }
+    }
+}
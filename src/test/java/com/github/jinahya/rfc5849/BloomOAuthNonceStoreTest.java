@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link BloomOAuthNonceStore}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class BloomOAuthNonceStoreTest {
+
+    private static final Logger logger = getLogger(lookup().lookupClass());
+
+    static BloomOAuthNonceStore store(final OAuthNonceStore store,
+                                      final int window, final int rate,
+                                      final double falsePositiveRate,
+                                      final long[] now) {
+        return new BloomOAuthNonceStore(store, window, rate,
+                                        falsePositiveRate) {
+            @Override
+            long now() {
+                return now[0];
+            }
+        };
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class})
+    public void constructWithIllegalFalsePositiveRate() {
+        new BloomOAuthNonceStore(new WatermarkOAuthNonceStore(), 1, 1, 1.0d);
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class})
+    public void constructWithIllegalMemory() {
+        new BloomOAuthNonceStore(new WatermarkOAuthNonceStore(), 1, 1, .01d,
+                                 BloomOAuthNonceStore.SLICES * 8L - 1L);
+    }
+
+    @Test
+    public void memoryCapped() {
+        final BloomOAuthNonceStore store = new BloomOAuthNonceStore(
+                new WatermarkOAuthNonceStore(), 300, 1000000, .0001d,
+                1L << 20);
+        assertEquals(store.memory(), 1L << 20);
+        assertEquals(new BloomOAuthNonceStore(
+                new WatermarkOAuthNonceStore(), 300, 1000000, .0001d)
+                .memory(), BloomOAuthNonceStore.MEMORY);
+    }
+
+    @Test
+    public void addReplayed() {
+        final long[] now = {1000L};
+        final BucketedOAuthNonceStore exact
+                = BucketedOAuthNonceStoreTest.store(10, 1024, 4, now);
+        final BloomOAuthNonceStore store = store(exact, 10, 100, .01d, now);
+        assertTrue(store.add("c", "t", 1000L, "n"));
+        assertEquals(store.news(), 1L);
+        assertEquals(exact.size(), 1);
+        assertFalse(store.add("c", "t", 1000L, "n"));
+        assertEquals(store.maybes(), 1L);
+        assertEquals(exact.replays(), 1L);
+        assertTrue(store.add("c", "t", 1001L, "n"));
+        assertTrue(store.add("c", null, 1000L, "n"));
+        assertFalse(store.add("c", "t", 1011L, "m"));
+        assertTrue(store.put("c", "t", 1000L, "m"));
+        assertFalse(store.add("c", "t", 1000L, "m"));
+    }
+
+    @Test
+    public void rotateSlices() {
+        final long[] now = {1000L};
+        final BucketedOAuthNonceStore exact
+                = BucketedOAuthNonceStoreTest.store(10, 1024, 4, now);
+        final BloomOAuthNonceStore store = store(exact, 10, 100, .01d, now);
+        for (long t = 990L; t <= 1010L; t++) {
+            assertTrue(store.add("c", "t", t, "n"));
+        }
+        for (int i = 0; i < 100; i++) {
+            now[0]++;
+            assertTrue(store.add("c", "t", now[0] + 10L, "n"));
+            for (long t = now[0] - 10L; t <= now[0] + 10L; t++) {
+                assertFalse(store.add("c", "t", t, "n"));
+            }
+        }
+        assertEquals(store.news(), 121L);
+        assertEquals(store.falsePositives(), 0L);
+    }
+
+    @Test
+    public void falsePositiveRate() {
+        final long[] now = {1000L};
+        final BucketedOAuthNonceStore exact
+                = BucketedOAuthNonceStoreTest.store(10, 1 << 20, 1, now);
+        final int rate = 10000;
+        final BloomOAuthNonceStore store = store(exact, 10, rate, .01d, now);
+        // fills a whole slice, which covers two seconds, as expected
+        for (int i = 0; i < rate * 2; i++) {
+            assertTrue(store.add("c", "t", 1000L, Integer.toString(i)));
+        }
+        logger.debug("falsePositiveRate: {}, memory: {}",
+                     store.falsePositiveRate(), store.memory());
+        assertTrue(store.falsePositiveRate() < .01d);
+        assertEquals(store.memory(),
+                     BloomOAuthNonceStore.SLICES * 8L * 4096L);
+    }
+
+    @Test
+    public void addConcurrently() throws InterruptedException {
+        final BloomOAuthNonceStore store = new BloomOAuthNonceStore(
+                new BucketedOAuthNonceStore(300, 1 << 16), 300, 100, .01d);
+        final long timestamp = System.currentTimeMillis() / 1000L;
+        final AtomicInteger added = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4096; i++) {
+            final int j = i;
+            executor.submit(() -> {
+                if (store.add("c" + (j % 16), "t", timestamp,
+                              Integer.toString(j % 1024))) {
+                    added.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+        assertEquals(added.get(), 1024);
+    }
+
+    @Test
+    public void addConcurrentlyToSaturatedFilter() throws InterruptedException {
+        // a single word saturates soon; every fresh combination is accepted
+        final BloomOAuthNonceStore store = new BloomOAuthNonceStore(
+                new BucketedOAuthNonceStore(300, 1 << 16), 300, 1, .5d);
+        assertTrue(store.memory() <= BloomOAuthNonceStore.SLICES * 8L * 2L);
+        final long timestamp = System.currentTimeMillis() / 1000L;
+        final AtomicInteger added = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4096; i++) {
+            final int j = i;
+            executor.submit(() -> {
+                if (store.add("c" + (j % 16), "t", timestamp,
+                              Integer.toString(j))) {
+                    added.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+        assertEquals(added.get(), 4096);
+    }
+
+    @Test
+    public void addRecordedByExactStore() {
+        final long[] now = {1000L};
+        final BucketedOAuthNonceStore exact
+                = BucketedOAuthNonceStoreTest.store(10, 1024, 4, now);
+        final BloomOAuthNonceStore store = store(exact, 10, 100, .01d, now);
+        assertTrue(exact.add("c", "t", 1000L, "n"));
+        assertFalse(store.add("c", "t", 1000L, "n"));
+        assertEquals(store.news(), 0L);
+    }
+}
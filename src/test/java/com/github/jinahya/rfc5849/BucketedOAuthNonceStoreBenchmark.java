@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link BucketedOAuthNonceStore} shared by multiple threads, with a
+ * single stripe standing for a globally locked store.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class BucketedOAuthNonceStoreBenchmark {
+
+    @State(Scope.Thread)
+    public static class Consumer {
+
+        @Setup
+        public void setup() {
+            consumerKey = Long.toHexString(Double.doubleToLongBits(
+                    Math.random()));
+        }
+
+        private String consumerKey;
+
+        private long nonce;
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BucketedOAuthNonceStoreBenchmark.class.getName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        store = new BucketedOAuthNonceStore(1, 1 << 22, stripes);
+    }
+
+    @Benchmark
+    public boolean add(final Consumer consumer) {
+        return store.add(consumer.consumerKey, "t",
+                         System.currentTimeMillis() / 1000L,
+                         Long.toString(consumer.nonce++));
+    }
+
+    @Param({"1", "64"})
+    private int stripes;
+
+    private BucketedOAuthNonceStore store;
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link BucketedOAuthNonceStore}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class BucketedOAuthNonceStoreTest {
+
+    /**
+     * Creates a store whose current time is the first element of given
+     * array.
+     */
+    static BucketedOAuthNonceStore store(final int window, final int capacity,
+                                         final int stripes, final long[] now) {
+        return new BucketedOAuthNonceStore(window, capacity, stripes) {
+            @Override
+            long now() {
+                return now[0];
+            }
+        };
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class})
+    public void constructWithZeroWindow() {
+        new BucketedOAuthNonceStore(0, 1);
+    }
+
+    @Test
+    public void addReplayed() {
+        final long[] now = {1000L};
+        final BucketedOAuthNonceStore store = store(10, 1024, 4, now);
+        assertTrue(store.add("c", "t", 1000L, "n"));
+        assertFalse(store.add("c", "t", 1000L, "n"));
+        assertEquals(store.replays(), 1L);
+        assertTrue(store.add("c", "t", 1001L, "n"));
+        assertTrue(store.add("c", null, 1000L, "n"));
+        assertTrue(store.add("c", "u", 1000L, "n"));
+        assertTrue(store.add("d", "t", 1000L, "n"));
+        assertTrue(store.add("c", "t", 1000L, "m"));
+        assertEquals(store.size(), 6);
+        assertFalse(store.put("c", "t", 1000L, "m"));
+        assertTrue(store.put("c", "t", 1000L, "o"));
+        assertFalse(store.add("c", "t", 1000L, "o"));
+    }
+
+    @Test
+    public void addOutOfWindow() {
+        final long[] now = {1000L};
+        final BucketedOAuthNonceStore store = store(10, 1024, 4, now);
+        assertTrue(store.add("c", "t", 990L, "n"));
+        assertTrue(store.add("c", "t", 1010L, "n"));
+        assertFalse(store.add("c", "t", 989L, "n"));
+        assertFalse(store.add("c", "t", 1011L, "n"));
+        assertEquals(store.outOfWindow(), 2L);
+        assertEquals(store.size(), 2);
+    }
+
+    @Test
+    public void dropBuckets() {
+        final long[] now = {1000L};
+        final BucketedOAuthNonceStore store = store(10, 1024, 1, now);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(store.add("c", "t", 995L, Integer.toString(i)));
+            assertTrue(store.add("c", "t", 1005L, Integer.toString(i)));
+        }
+        assertEquals(store.size(), 16);
+        now[0] = 1006L; // 995 is now outside the window
+        assertFalse(store.add("c", "t", 995L, "0"));
+        assertEquals(store.size(), 8);
+        // the ring slot of 995 is reused by 1016 without the old entries
+        now[0] = 1015L;
+        assertTrue(store.add("c", "t", 1016L, "0"));
+        assertFalse(store.add("c", "t", 1005L, "0"));
+        assertEquals(store.size(), 9);
+        now[0] = 1016L;
+        assertTrue(store.add("c", "t", 1016L, "1"));
+        assertEquals(store.size(), 2);
+        now[0] = 100000L;
+        store.expire();
+        assertEquals(store.size(), 0);
+    }
+
+    @Test
+    public void overflow() {
+        final long[] now = {1000L};
+        final BucketedOAuthNonceStore store = store(10, 4, 1, now);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(store.add("c", "t", 1000L, Integer.toString(i)));
+        }
+        assertFalse(store.add("c", "t", 1000L, "4"));
+        assertEquals(store.overflows(), 1L);
+        now[0] = 1011L;
+        assertTrue(store.add("c", "t", 1011L, "4"));
+        assertEquals(store.size(), 1);
+    }
+
+    @Test
+    public void addConcurrently() throws InterruptedException {
+        final BucketedOAuthNonceStore store
+                = new BucketedOAuthNonceStore(300, 1 << 16);
+        final long timestamp = System.currentTimeMillis() / 1000L;
+        final AtomicInteger added = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4096; i++) {
+            final int j = i;
+            executor.submit(() -> {
+                if (store.add("c" + (j % 16), "t", timestamp,
+                              Integer.toString(j % 1024))) {
+                    added.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+        assertEquals(added.get(), 1024);
+        assertEquals(store.size(), 1024);
+        assertEquals(store.replays(), 4096L - 1024L);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseString_twitter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures normalizing request parameters with {@link _Normalized} against
+ * the previous tree map based algorithm, and building base strings from an
+ * {@link OAuthBaseStringTemplate} against building them from scratch.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OAuthBaseStringBenchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OAuthBaseStringBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        requestParameters = baseString_twitter().requestParameters();
+        parameters = _ParametersTest.toMap(requestParameters);
+        template = baseString_twitter().compile();
+    }
+
+    @Benchmark
+    public String legacy() {
+        return _NormalizedTest.legacy(parameters);
+    }
+
+    @Benchmark
+    public byte[] normalized() {
+        return new _Normalized(null, requestParameters).toByteArray();
+    }
+
+    @Benchmark
+    public String plain() {
+        return baseString_twitter()
+                .oauthNonce("kYjzVBB8Y0ZFabxSWbWovY3uYSQ2pTgmZeNu2VS4cg")
+                .oauthTimestamp("1318622958")
+                .get();
+    }
+
+    @Benchmark
+    public String template() {
+        return template.newBaseString()
+                .oauthNonce("kYjzVBB8Y0ZFabxSWbWovY3uYSQ2pTgmZeNu2VS4cg")
+                .oauthTimestamp("1318622958")
+                .get();
+    }
+
+    private _Parameters requestParameters;
+
+    private Map<String, List<String>> parameters;
+
+    private OAuthBaseStringTemplate template;
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseString_rfc5849_3_4_1_1;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link OAuthBaseStringTemplate}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class OAuthBaseStringTemplateTest {
+
+    private static OAuthBaseString statics() {
+        return new OAuthBaseString()
+                .httpMethod("POST")
+                .baseUri("http://example.com/request")
+                .queryParameter("b5", "=%3D")
+                .queryParameter("a3", "a")
+                .queryParameter("c@", "")
+                .oauthConsumerKey("9djdj82h48djs9d2")
+                .oauthToken("kkk9d7dh3k39sjv7")
+                .oauthSignatureMethod("HMAC-SHA1");
+    }
+
+    private static OAuthBaseString dynamics(final OAuthBaseString baseString) {
+        return baseString
+                .queryParameter("a2", "r b")
+                .oauthTimestamp("137131201")
+                .oauthNonce("7d8f3e4a")
+                .entityParameter("c2", "")
+                .entityParameter("a3", "2 q");
+    }
+
+    @Test
+    public void rfc5849_3_4_1_1() throws Exception {
+        final OAuthBaseStringTemplate template = statics().compile();
+        final OAuthBaseString baseString = dynamics(template.newBaseString());
+        final String expected = baseString_rfc5849_3_4_1_1().get();
+        assertEquals(baseString.get(), expected);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        baseString.write(output);
+        assertEquals(output.toString("US-ASCII"), expected);
+    }
+
+    @Test
+    public void dynamicsExcluded() {
+        final OAuthBaseStringTemplate template = statics()
+                .oauthNonce("nonce")
+                .oauthTimestamp("0")
+                .compile();
+        assertEquals(dynamics(template.newBaseString()).get(),
+                     baseString_rfc5849_3_4_1_1().get());
+    }
+
+    @Test
+    public void protocolParameterReplaced() {
+        final OAuthBaseStringTemplate template = statics().compile();
+        final OAuthBaseString bound = dynamics(template.newBaseString())
+                .oauthToken("replaced");
+        final OAuthBaseString plain = dynamics(statics())
+                .oauthToken("replaced");
+        assertEquals(bound.get(), plain.get());
+        // compiling a bound base string keeps the replacement
+        final OAuthBaseString rebound = dynamics(
+                template.newBaseString().oauthToken("replaced")
+                .compile().newBaseString());
+        assertEquals(rebound.get(), plain.get());
+    }
+
+    @Test
+    public void signedSameAsPlain() throws Exception {
+        final OAuthBaseStringTemplate template = statics().compile();
+        final String expected = new OAuthProtocolParameters()
+                .realm("Example")
+                .signature(new OAuthSignatureHmacSha1Jca()
+                        .consumerSecret("j49sk3j29djd")
+                        .tokenSecret("dh893hdasih9")
+                        .baseString(dynamics(statics())))
+                .authorizationHeader();
+        final String actual = new OAuthProtocolParameters()
+                .realm("Example")
+                .signature(new OAuthSignatureHmacSha1Jca()
+                        .consumerSecret("j49sk3j29djd")
+                        .tokenSecret("dh893hdasih9")
+                        .baseString(dynamics(template.newBaseString())))
+                .authorizationHeader();
+        assertEquals(actual, expected);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void httpMethodOfBound() {
+        statics().compile().newBaseString().httpMethod("GET");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void compileWithoutBaseUri() {
+        new OAuthBaseString().httpMethod("GET").compile();
+    }
+
+    @Test
+    public void shared() throws Exception {
+        final OAuthBaseStringTemplate template = statics().compile();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final String nonce = Integer.toString(i);
+                futures.add(executor.submit((Callable<String>) () -> {
+                    final String actual = template.newBaseString()
+                            .oauthNonce(nonce).get();
+                    final String expected = statics()
+                            .oauthNonce(nonce).get();
+                    assertEquals(actual, expected);
+                    return actual;
+                }));
+            }
+            for (final Future<String> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -15,10 +15,16 @@
  */
 package com.github.jinahya.rfc5849;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import static java.lang.invoke.MethodHandles.lookup;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -37,6 +43,11 @@ public class OAuthBaseStringTest {
             public String get() {
                 return baseString;
             }
+
+            @Override
+            public void write(final OutputStream output) throws IOException {
+                output.write(baseString.getBytes("US-ASCII"));
+            }
         };
     }
 
@@ -176,6 +187,13 @@ public class OAuthBaseStringTest {
         assertEquals(actual, expected);
     }
 
+    @Test(dataProvider = "baseStrings")
+    public void write(final OAuthBaseString baseString) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        baseString.write(output);
+        assertEquals(output.toString("US-ASCII"), baseString.get());
+    }
+
     @Test(expectedExceptions = {IllegalStateException.class})
     public void buildWithoutHttpMethod() {
         new OAuthBaseString()
@@ -213,4 +231,31 @@ public class OAuthBaseStringTest {
                 .oauthNonce("oauthNonce")
                 .get();
     }
+
+    @Test
+    public void clear() {
+        final OAuthBaseString baseString = baseString_twitter();
+        final int revision = baseString.revision();
+        assertSame(baseString.clear(), baseString);
+        assertTrue(baseString.revision() != revision);
+        assertEquals(baseString.requestParameters().size(), 0);
+        assertFalse(baseString.requestParameters().containsKey("status"));
+        baseString
+                .httpMethod("GET")
+                .baseUri("http://photos.example.net/photos")
+                .protocolParameter("oauth_consumer_key", "dpf43f3p2l4k3l03")
+                .protocolParameter("oauth_token", "nnch734d00sl2jdk")
+                .protocolParameter("oauth_nonce", "kllo9940pd9333jh")
+                .protocolParameter("oauth_timestamp", "1191242096")
+                .protocolParameter("oauth_signature_method", "HMAC-SHA1")
+                .protocolParameter("oauth_version", "1.0")
+                .queryParameter("size", "original")
+                .queryParameter("file", "vacation.jpg");
+        assertEquals(baseString.get(), baseString_nouncer().get());
+    }
+
+    @Test(expectedExceptions = {IllegalStateException.class})
+    public void buildAfterClear() {
+        baseString_nouncer().clear().get();
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link OAuthBuilderPool}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class OAuthBuilderPoolTest {
+
+    private static String sign(final OAuthBuilderPool pool,
+                               final String nonce) throws Exception {
+        final OAuthBaseString baseString = pool.acquireBaseString();
+        final OAuthSignatureHmacSha1Jca signature = pool.acquireHmacSha1Jca();
+        final OAuthProtocolParameters parameters
+                = pool.acquireProtocolParameters();
+        try {
+            return parameters
+                    .realm("http://photos.example.net/photos")
+                    .signature(signature
+                            .consumerSecret("kd94hf93k423kf44")
+                            .tokenSecret("pfkkdhi9sl3r4s00")
+                            .baseString(baseString
+                                    .httpMethod("GET")
+                                    .baseUri("http://photos.example.net/photos")
+                                    .queryParameter("size", "original")
+                                    .queryParameter("file", "vacation.jpg")
+                                    .oauthConsumerKey("dpf43f3p2l4k3l03")
+                                    .oauthNonce(nonce)
+                                    .oauthTimestamp("1191242096")
+                                    .oauthToken("nnch734d00sl2jdk")
+                                    .oauthVersion("1.0")))
+                    .authorizationHeader();
+        } finally {
+            pool.release(parameters);
+            pool.release(signature);
+            pool.release(baseString);
+        }
+    }
+
+    @Test
+    public void reused() throws Exception {
+        final OAuthBuilderPool pool = OAuthBuilderPool.current();
+        assertSame(OAuthBuilderPool.current(), pool);
+        final String expected = sign(pool, "kllo9940pd9333jh");
+        assertEquals(expected,
+                     "OAuth realm=\"http://photos.example.net/photos\","
+                     + " oauth_consumer_key=\"dpf43f3p2l4k3l03\","
+                     + " oauth_nonce=\"kllo9940pd9333jh\","
+                     + " oauth_signature=\"tR3%2BTy81lMeYAr%2FFid0kMTYa%2FWM%3D\","
+                     + " oauth_signature_method=\"HMAC-SHA1\","
+                     + " oauth_timestamp=\"1191242096\","
+                     + " oauth_token=\"nnch734d00sl2jdk\","
+                     + " oauth_version=\"1.0\"");
+        final OAuthBaseString baseString = pool.acquireBaseString();
+        pool.release(baseString);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(sign(pool, "kllo9940pd9333jh"), expected);
+            assertNotEquals(sign(pool, "other"), expected);
+        }
+        assertSame(pool.acquireBaseString(), baseString);
+    }
+
+    @Test
+    public void releasedOnce() {
+        final OAuthBuilderPool pool = OAuthBuilderPool.current();
+        final OAuthProtocolParameters instance
+                = pool.acquireProtocolParameters();
+        pool.release(instance);
+        pool.release(instance);
+        assertSame(pool.acquireProtocolParameters(), instance);
+        assertNotSame(pool.acquireProtocolParameters(), instance);
+    }
+
+    @Test
+    public void optionsKept() {
+        final OAuthBuilderPool pool = OAuthBuilderPool.current();
+        final OAuthSignatureHmacSha1Bc instance = pool.acquireHmacSha1Bc();
+        instance.keyCache(new OAuthKeyCache(1)).prefixCached(true)
+                .engineReused(true)
+                .consumerSecret("j49sk3j29djd").tokenSecret("dh893hdasih9");
+        pool.release(instance);
+        final OAuthSignatureHmacSha1Bc acquired = pool.acquireHmacSha1Bc();
+        assertSame(acquired, instance);
+        assertTrue(acquired.engineReused());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void secretsCleared() {
+        final OAuthBuilderPool pool = OAuthBuilderPool.current();
+        final OAuthSignatureHmacSha1Jca instance = pool.acquireHmacSha1Jca();
+        instance.consumerSecret("j49sk3j29djd").tokenSecret("dh893hdasih9");
+        pool.release(instance);
+        pool.acquireHmacSha1Jca().keyString();
+    }
+
+    @Test
+    public void subclassesNotKept() {
+        final OAuthBuilderPool pool = OAuthBuilderPool.current();
+        final OAuthBaseString subclassed = new OAuthBaseString() {
+        };
+        pool.release(subclassed);
+        assertNotSame(pool.acquireBaseString(), subclassed);
+        final OAuthBaseString bound = new OAuthBaseString()
+                .httpMethod("GET").baseUri("http://localhost").compile()
+                .newBaseString();
+        pool.release(bound);
+        assertNotSame(pool.acquireBaseString(), bound);
+    }
+
+    @Test
+    public void confined() throws Exception {
+        final OAuthBuilderPool pool = OAuthBuilderPool.current();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNotSame(executor.submit(OAuthBuilderPool::current).get(),
+                          pool);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static java.util.concurrent.ThreadLocalRandom.current;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link OAuthKeyCache}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class OAuthKeyCacheTest {
+
+    @Test(expectedExceptions = {IllegalArgumentException.class})
+    public void constructWithZeroCapacity() {
+        new OAuthKeyCache(0);
+    }
+
+    @Test
+    public void evictEldest() {
+        final OAuthKeyCache cache = new OAuthKeyCache(2);
+        cache.put(OAuthKeyCache.key("a"), "a");
+        cache.put(OAuthKeyCache.key("b"), "b");
+        cache.put(OAuthKeyCache.key("c"), "c");
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.evictions(), 1L);
+        assertNull(cache.get(OAuthKeyCache.key("a")));
+        assertEquals(cache.get(OAuthKeyCache.key("b")), "b");
+        assertEquals(cache.get(OAuthKeyCache.key("c")), "c");
+        assertEquals(cache.hits(), 2L);
+        assertEquals(cache.misses(), 1L);
+        cache.clear();
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void evictFirstPutRegardlessOfLookups() {
+        final OAuthKeyCache cache = new OAuthKeyCache(2);
+        cache.put(OAuthKeyCache.key("a"), "a");
+        cache.put(OAuthKeyCache.key("b"), "b");
+        assertEquals(cache.get(OAuthKeyCache.key("a")), "a");
+        cache.put(OAuthKeyCache.key("c"), "c");
+        assertNull(cache.get(OAuthKeyCache.key("a")));
+        assertEquals(cache.get(OAuthKeyCache.key("b")), "b");
+    }
+
+    @Test
+    public void putConcurrently() throws InterruptedException {
+        final int capacity = 16;
+        final OAuthKeyCache cache = new OAuthKeyCache(capacity);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1024; i++) {
+            executor.submit(() -> {
+                final Object key = OAuthKeyCache.key(current().nextInt(64));
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+        assertTrue(cache.size() <= capacity);
+        assertEquals(cache.hits() + cache.misses(), 1024L);
+    }
+}
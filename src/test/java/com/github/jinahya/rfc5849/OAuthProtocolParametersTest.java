@@ -16,9 +16,12 @@
 package com.github.jinahya.rfc5849;
 
 import static java.lang.invoke.MethodHandles.lookup;
+import java.nio.ByteBuffer;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
 import org.testng.annotations.Test;
 
 /**
@@ -408,4 +411,106 @@ public class OAuthProtocolParametersTest {
         final String actual = builder.authorizationHeader();
         assertEquals(actual, expected);
     }
+
+    @Test
+    public void signatureEncodedInEachForm() throws Exception {
+        final OAuthBaseString baseString = new OAuthBaseString()
+                .httpMethod("GET")
+                .baseUri("http://photos.example.net/photos")
+                .queryParameter("size", "original")
+                .queryParameter("file", "vacation.jpg")
+                .oauthConsumerKey("dpf43f3p2l4k3l03")
+                .oauthNonce("kllo9940pd9333jh")
+                .oauthTimestamp("1191242096")
+                .oauthToken("nnch734d00sl2jdk")
+                .oauthVersion("1.0");
+        final OAuthProtocolParameters hmac = new OAuthProtocolParameters()
+                .signature(new OAuthSignatureHmacSha1Bc()
+                        .consumerSecret("kd94hf93k423kf44")
+                        .tokenSecret("pfkkdhi9sl3r4s00")
+                        .baseString(baseString));
+        final String signature
+                = "oauth_signature=tR3%2BTy81lMeYAr%2FFid0kMTYa%2FWM%3D";
+        assertTrue(hmac.formEncodedBody().contains("&" + signature + "&"));
+        assertTrue(hmac.requestUriQuery().contains("&" + signature + "&"));
+        final OAuthProtocolParameters plaintext = new OAuthProtocolParameters()
+                .signature(new OAuthSignaturePlaintext()
+                        .consumerSecret("kd94hf93k423kf44")
+                        .tokenSecret("pfkk dhi9")
+                        .baseString(baseString));
+        assertTrue(plaintext.authorizationHeader().contains(
+                " oauth_signature=\"kd94hf93k423kf44%26pfkk%2520dhi9\","));
+        assertTrue(plaintext.formEncodedBody().contains(
+                "&oauth_signature=kd94hf93k423kf44%26pfkk%2520dhi9&"));
+    }
+
+    @Test
+    public void signatureMemoized() throws Exception {
+        final OAuthBaseString baseString = new OAuthBaseString()
+                .httpMethod("GET")
+                .baseUri("http://photos.example.net/photos")
+                .queryParameter("size", "original")
+                .oauthConsumerKey("dpf43f3p2l4k3l03")
+                .oauthNonce("kllo9940pd9333jh")
+                .oauthTimestamp("1191242096");
+        final OAuthSignatureHmacSha1 signature = new OAuthSignatureHmacSha1Jca()
+                .consumerSecret("kd94hf93k423kf44")
+                .tokenSecret("pfkkdhi9sl3r4s00")
+                .baseString(baseString);
+        final OAuthProtocolParameters parameters
+                = new OAuthProtocolParameters().signature(signature);
+        final String header = parameters.authorizationHeader();
+        parameters.formEncodedBody();
+        parameters.requestUriQuery();
+        assertEquals(parameters.authorizationHeader(), header);
+        assertEquals(parameters.signatureCount(), 1L);
+        baseString.oauthNonce("kllo9940pd9333ji");
+        final String renewed = parameters.authorizationHeader();
+        assertEquals(parameters.signatureCount(), 2L);
+        assertTrue(renewed.contains("oauth_nonce=\"kllo9940pd9333ji\""));
+        assertNotEquals(renewed, header);
+        signature.tokenSecret("");
+        assertNotEquals(parameters.authorizationHeader(), renewed);
+        assertEquals(parameters.signatureCount(), 3L);
+        parameters.signature(signature);
+        parameters.requestUriQuery();
+        assertEquals(parameters.signatureCount(), 4L);
+    }
+
+    @Test
+    public void authorizationHeaderIntoBytes() throws Exception {
+        final OAuthProtocolParameters parameters = new OAuthProtocolParameters()
+                .realm("Photos")
+                .signature(new OAuthSignatureHmacSha1Jca()
+                        .consumerSecret("kd94hf93k423kf44")
+                        .tokenSecret("pfkkdhi9sl3r4s00")
+                        .baseString(new OAuthBaseString()
+                                .httpMethod("GET")
+                                .baseUri("http://photos.example.net/photos")
+                                .oauthConsumerKey("dpf43f3p2l4k3l03")
+                                .oauthNonce("kllo9940pd9333jh")
+                                .oauthTimestamp("1191242096")));
+        final String expected = parameters.authorizationHeader();
+        assertEquals(parameters.authorizationHeaderLength(), expected.length());
+        final byte[] array = new byte[expected.length()];
+        assertEquals(parameters.authorizationHeader(array, 0), array.length);
+        assertEquals(new String(array, "US-ASCII"), expected);
+        final ByteBuffer buffer = ByteBuffer.allocate(expected.length());
+        assertEquals(parameters.authorizationHeader(buffer), array.length);
+        assertEquals(buffer.array(), array);
+        assertEquals(parameters.signatureCount(), 1L);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void clear() throws Exception {
+        final OAuthProtocolParameters parameters = new OAuthProtocolParameters()
+                .signature(new OAuthSignaturePlaintext()
+                        .consumerSecret("ja893SD9")
+                        .tokenSecret("")
+                        .baseString(new OAuthBaseString()
+                                .oauthConsumerKey("jd83jd92dhsh93js")));
+        parameters.authorizationHeader();
+        assertEquals(parameters.clear().signatureCount(), 1L);
+        parameters.authorizationHeader();
+    }
 }
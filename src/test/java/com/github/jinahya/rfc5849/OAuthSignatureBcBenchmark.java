@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseString_twitter;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
+import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures allocation rates of {@link OAuthSignatureHmacSha1Bc} and
+ * {@link OAuthSignatureRsaSha1Bc} with and without reusing engines. Run with
+ * the {@code gc} profiler and compare {@code gc.alloc.rate.norm} values.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OAuthSignatureBcBenchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OAuthSignatureBcBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        keyBytes = ("kAcSOqF21Fu85e7zjz7ZN2U4ZRhfV3WpwPAoE3Z7kBw"
+                    + "&LswwdoUaIvS8ltyTt5jkRh4J50vUPVVHtR2YPi5kE")
+                .getBytes("ISO-8859-1");
+        baseBytes = baseString_twitter().get().getBytes("ISO-8859-1");
+        message = _Message.of(baseBytes);
+        final RSAKeyPairGenerator generator = new RSAKeyPairGenerator();
+        generator.init(new RSAKeyGenerationParameters(
+                OAuthSignatureRsaSha1Test.exponent(), new SecureRandom(),
+                1024, 80));
+        initParam = generator.generateKeyPair().getPrivate();
+    }
+
+    @Benchmark
+    public byte[] hmacSha1PerCall() throws Exception {
+        return hmacSha1PerCall.get(keyBytes, baseBytes);
+    }
+
+    @Benchmark
+    public byte[] hmacSha1EngineReused() throws Exception {
+        hmacSha1EngineReused.get(keyBytes, message, output);
+        return output;
+    }
+
+    @Benchmark
+    public byte[] rsaSha1PerCall() throws Exception {
+        return rsaSha1PerCall.get(initParam, baseBytes);
+    }
+
+    @Benchmark
+    public byte[] rsaSha1EngineReused() throws Exception {
+        return rsaSha1EngineReused.get(initParam, message);
+    }
+
+    private final OAuthSignatureHmacSha1Bc hmacSha1PerCall
+            = new OAuthSignatureHmacSha1Bc();
+
+    private final OAuthSignatureHmacSha1Bc hmacSha1EngineReused
+            = new OAuthSignatureHmacSha1Bc().engineReused(true);
+
+    private final OAuthSignatureRsaSha1Bc rsaSha1PerCall
+            = new OAuthSignatureRsaSha1Bc();
+
+    private final OAuthSignatureRsaSha1Bc rsaSha1EngineReused
+            = new OAuthSignatureRsaSha1Bc().engineReused(true);
+
+    private byte[] keyBytes;
+
+    private byte[] baseBytes;
+
+    private _Message message;
+
+    private final byte[] output
+            = new byte[OAuthSignatureHmacSha1.MAC_LENGTH];
+
+    private CipherParameters initParam;
+}
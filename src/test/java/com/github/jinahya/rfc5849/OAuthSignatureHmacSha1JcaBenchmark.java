@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseString_twitter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures throughput of {@link OAuthSignatureHmacSha1Jca} with and without
+ * reusing {@link javax.crypto.Mac} instances. The signature base string is
+ * prepared in advance so that only the engine is measured. Signing and
+ * verifying a whole base string are also measured against each other.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Thread)
+public class OAuthSignatureHmacSha1JcaBenchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OAuthSignatureHmacSha1JcaBenchmark.class.getName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        keyBytes = ("kAcSOqF21Fu85e7zjz7ZN2U4ZRhfV3WpwPAoE3Z7kBw"
+                    + "&LswwdoUaIvS8ltyTt5jkRh4J50vUPVVHtR2YPi5kE")
+                .getBytes("ISO-8859-1");
+        baseBytes = baseString_twitter().get().getBytes("ISO-8859-1");
+        builder = new OAuthSignatureHmacSha1Jca().engineReused(true)
+                .consumerSecret("kAcSOqF21Fu85e7zjz7ZN2U4ZRhfV3WpwPAoE3Z7kBw")
+                .tokenSecret("LswwdoUaIvS8ltyTt5jkRh4J50vUPVVHtR2YPi5kE")
+                .baseString(baseString_twitter());
+    }
+
+    @Benchmark
+    public byte[] perCall() throws Exception {
+        return perCall.get(keyBytes, baseBytes);
+    }
+
+    @Benchmark
+    public byte[] engineReused() throws Exception {
+        return engineReused.get(keyBytes, baseBytes);
+    }
+
+    @Benchmark
+    public String sign() throws Exception {
+        return builder.get();
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        return builder.verify("tnnArxj06cWHq44gCs1OSKk/jLY=");
+    }
+
+    private final OAuthSignatureHmacSha1Jca perCall
+            = new OAuthSignatureHmacSha1Jca();
+
+    private final OAuthSignatureHmacSha1Jca engineReused
+            = new OAuthSignatureHmacSha1Jca().engineReused(true);
+
+    private byte[] keyBytes;
+
+    private byte[] baseBytes;
+
+    private OAuthSignatureHmacSha1 builder;
+}
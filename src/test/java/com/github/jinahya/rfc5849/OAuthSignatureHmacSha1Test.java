@@ -19,11 +19,20 @@ import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseString_nouncer;
 import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseString_twitter;
 import static java.lang.invoke.MethodHandles.lookup;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.apache.commons.lang3.RandomStringUtils;
 import org.testng.annotations.Test;
 
 /**
@@ -77,6 +86,80 @@ public abstract class OAuthSignatureHmacSha1Test<T extends OAuthSignatureHmacSha
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void verify() throws Exception {
+        final T signature = instance();
+        signature.consumerSecret("kd94hf93k423kf44")
+                .tokenSecret("pfkkdhi9sl3r4s00")
+                .baseString(baseString_nouncer());
+        for (int i = 0; i < 2; i++) { // buffers reused
+            assertTrue(signature.verify("tR3+Ty81lMeYAr/Fid0kMTYa/WM="));
+            assertFalse(signature.verify("tR3+Ty81lMeYAr/Fid0kMTYa/XM="));
+            assertFalse(signature.verify("uR3+Ty81lMeYAr/Fid0kMTYa/WM="));
+        }
+        assertFalse(signature.verify(""));
+        assertFalse(signature.verify("tR3+Ty81lMeYAr/Fid0kMTYa/W=="));
+        assertFalse(signature.verify("tR3+Ty81lMeYAr/Fid0kMTYa/WM"));
+        assertFalse(signature.verify("tR3+Ty81lMeYAr/Fid0kMTYa/W%="));
+        assertFalse(signature.verify("AAAAAAAAAAAAAAAAAAAAAAAAAAAA"));
+        assertFalse(signature.verify("AAAAAAAAAAAAAAAAAAAAAAAAAAA="));
+        assertFalse(signature.verify("tR3+Ty81lMeYAr/Fid0kMTYa/WMA"));
+        signature.baseString(baseString_nouncer().oauthNonce("other"));
+        assertFalse(signature.verify("tR3+Ty81lMeYAr/Fid0kMTYa/WM="));
+    }
+
+    @Test(dataProvider = "baseStrings",
+          dataProviderClass = OAuthBaseStringTest.class)
+    public void verifySigned(final OAuthBaseString baseString)
+            throws Exception {
+        final OAuthKeyCache keyCache = new OAuthKeyCache(2);
+        final String consumerSecret = Long.toString(random().nextLong());
+        final String tokenSecret = Long.toString(random().nextLong());
+        final String signed = instance()
+                .consumerSecret(consumerSecret).tokenSecret(tokenSecret)
+                .baseString(baseString)
+                .get();
+        assertTrue(instance()
+                .consumerSecret(consumerSecret).tokenSecret(tokenSecret)
+                .baseString(baseString)
+                .verify(signed));
+        assertTrue(instance().keyCache(keyCache).prefixCached(true)
+                .consumerSecret(consumerSecret).tokenSecret(tokenSecret)
+                .baseString(baseString)
+                .verify(signed));
+        assertTrue(instance().engineReused(true)
+                .consumerSecret(consumerSecret).tokenSecret(tokenSecret)
+                .baseString(baseString)
+                .verify(signed));
+        assertFalse(instance()
+                .consumerSecret(consumerSecret).tokenSecret("")
+                .baseString(baseString)
+                .verify(signed));
+    }
+
+    @Test
+    public void engineReusedAcrossSecrets() throws Exception {
+        final T signature = instance();
+        signature.engineReused(true);
+        for (int i = 0; i < 4; i++) {
+            final String tokenSecret = i % 2 == 0 ? "pfkkdhi9sl3r4s00" : "";
+            final String expected = instance()
+                    .consumerSecret("kd94hf93k423kf44")
+                    .tokenSecret(tokenSecret)
+                    .baseString(baseString_nouncer())
+                    .get();
+            final String actual = signature
+                    .consumerSecret("kd94hf93k423kf44")
+                    .tokenSecret(tokenSecret)
+                    .baseString(baseString_nouncer())
+                    .get();
+            assertEquals(actual, expected);
+            if (i == 1) {
+                signature.clear();
+            }
+        }
+    }
+
     @Test
     public void nouncerExample() throws Exception {
         final String consumerSecret = "kd94hf93k423kf44";
@@ -88,4 +171,103 @@ public abstract class OAuthSignatureHmacSha1Test<T extends OAuthSignatureHmacSha
         final String actual = signature.get();
         assertEquals(actual, expected);
     }
+
+    @Test(dataProvider = "baseStrings",
+          dataProviderClass = OAuthBaseStringTest.class)
+    public void keyCache(final OAuthBaseString baseString) throws Exception {
+        final OAuthKeyCache keyCache = new OAuthKeyCache(2);
+        for (int i = 0; i < 3; i++) {
+            // short or longer than the block size
+            final String consumerSecret
+                    = RandomStringUtils.random(random().nextInt(1, 128));
+            final String tokenSecret
+                    = RandomStringUtils.random(random().nextInt(1, 128));
+            final String expected = instance()
+                    .consumerSecret(consumerSecret).tokenSecret(tokenSecret)
+                    .baseString(baseString)
+                    .get();
+            for (int j = 0; j < 2; j++) {
+                final String actual = instance().keyCache(keyCache)
+                        .consumerSecret(consumerSecret)
+                        .tokenSecret(tokenSecret)
+                        .baseString(baseString)
+                        .get();
+                assertEquals(actual, expected);
+            }
+        }
+        assertEquals(keyCache.misses(), 3L);
+        assertEquals(keyCache.hits(), 3L);
+        assertEquals(keyCache.evictions(), 1L);
+        assertEquals(keyCache.size(), 2);
+    }
+
+    @Test
+    public void prefixCached() throws Exception {
+        final OAuthKeyCache keyCache = new OAuthKeyCache(16);
+        for (int i = 0; i < 8; i++) {
+            final OAuthBaseString baseString = baseString_nouncer()
+                    .oauthNonce(Long.toString(random().nextLong()))
+                    .oauthTimestamp(Integer.toString(i));
+            final String expected = instance()
+                    .consumerSecret("kd94hf93k423kf44")
+                    .tokenSecret("pfkkdhi9sl3r4s00")
+                    .baseString(baseString)
+                    .get();
+            final String actual = instance()
+                    .keyCache(keyCache)
+                    .prefixCached(true)
+                    .consumerSecret("kd94hf93k423kf44")
+                    .tokenSecret("pfkkdhi9sl3r4s00")
+                    .baseString(baseString)
+                    .get();
+            assertEquals(actual, expected);
+        }
+        assertEquals(keyCache.misses(), 1L);
+        assertEquals(keyCache.hits(), 7L);
+        final String nouncer = instance()
+                .keyCache(keyCache)
+                .prefixCached(true)
+                .consumerSecret("kd94hf93k423kf44")
+                .tokenSecret("pfkkdhi9sl3r4s00")
+                .baseString(baseString_nouncer())
+                .get();
+        assertEquals(nouncer, "tR3+Ty81lMeYAr/Fid0kMTYa/WM=");
+    }
+
+    @Test(invocationCount = 16)
+    public void engineReused() throws Exception {
+        final String consumerSecret = Long.toString(random().nextLong());
+        final String tokenSecret = Long.toString(random().nextLong());
+        final String expected = instance()
+                .consumerSecret(consumerSecret).tokenSecret(tokenSecret)
+                .baseString(baseString_twitter())
+                .get();
+        final OAuthSignatureHmacSha1 reusing = instance().engineReused(true);
+        for (int i = 0; i < 2; i++) { // reinitialized or not
+            final String actual = reusing
+                    .consumerSecret(consumerSecret).tokenSecret(tokenSecret)
+                    .baseString(baseString_twitter())
+                    .get();
+            assertEquals(actual, expected);
+        }
+    }
+
+    @Test
+    public void engineReusedConcurrently() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    engineReused();
+                    return null;
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
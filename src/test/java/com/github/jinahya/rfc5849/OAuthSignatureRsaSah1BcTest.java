@@ -16,12 +16,14 @@
 package com.github.jinahya.rfc5849;
 
 import static java.lang.invoke.MethodHandles.lookup;
+import java.security.PrivateKey;
 import java.security.SecureRandom;
 import java.util.function.Function;
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
 import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
+import org.bouncycastle.crypto.util.PrivateKeyFactory;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -97,4 +99,9 @@ public class OAuthSignatureRsaSah1BcTest
     CipherParameters initParam() throws Exception {
         return applyPrivateKey(p -> p);
     }
+
+    @Override
+    CipherParameters initParam(final PrivateKey privateKey) throws Exception {
+        return PrivateKeyFactory.createKey(privateKey.getEncoded());
+    }
 }
@@ -15,6 +15,7 @@
  */
 package com.github.jinahya.rfc5849;
 
+import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseString_twitter;
 import static com.github.jinahya.rfc5849.OAuthSignatureTest.random;
 import java.io.IOException;
 import static java.lang.invoke.MethodHandles.lookup;
@@ -24,12 +25,14 @@ import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.Signature;
 import java.security.interfaces.RSAKey;
 import java.util.function.Function;
 import javax.crypto.Cipher;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import org.testng.annotations.Test;
 
 /**
@@ -88,6 +91,61 @@ public class OAuthSignatureRsaSah1JcaTest
         return applyPrivateKey(k -> k);
     }
 
+    @Override
+    PrivateKey initParam(final PrivateKey privateKey) {
+        return privateKey;
+    }
+
+    @Test
+    public void engineReused() throws Exception {
+        applyKeyPair(keyPair -> {
+            try {
+                final byte[] baseBytes
+                        = baseString_twitter().get().getBytes("ISO-8859-1");
+                final byte[] expected = new OAuthSignatureRsaSha1Jca()
+                        .get(keyPair.getPrivate(), baseBytes);
+                final OAuthSignatureRsaSha1Jca signature
+                        = new OAuthSignatureRsaSha1Jca().engineReused(true);
+                for (int i = 0; i < 3; i++) {
+                    final byte[] actual
+                            = signature.get(keyPair.getPrivate(), baseBytes);
+                    assertEquals(actual, expected);
+                }
+                final Signature verifier = Signature.getInstance(
+                        OAuthSignatureRsaSha1Jca.ALGORITHM);
+                verifier.initVerify(keyPair.getPublic());
+                verifier.update(baseBytes);
+                assertTrue(verifier.verify(expected));
+            } catch (final Exception e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void engineReusedAcrossKeys() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance(
+                ALGORITHM);
+        generator.initialize(1024);
+        final PrivateKey[] privateKeys = new PrivateKey[]{
+            generator.generateKeyPair().getPrivate(),
+            generator.generateKeyPair().getPrivate()};
+        final byte[] baseBytes
+                = baseString_twitter().get().getBytes("ISO-8859-1");
+        final OAuthSignatureRsaSha1Jca signature
+                = new OAuthSignatureRsaSha1Jca().engineReused(true);
+        for (int i = 0; i < 4; i++) {
+            final PrivateKey privateKey = privateKeys[i % privateKeys.length];
+            assertEquals(signature.get(privateKey, baseBytes),
+                         new OAuthSignatureRsaSha1Jca()
+                         .get(privateKey, baseBytes));
+            if (i == 1) {
+                signature.clear();
+            }
+        }
+    }
+
     @Test
     public void encodePrivateDecodePublic()
             throws NoSuchAlgorithmException, IOException {
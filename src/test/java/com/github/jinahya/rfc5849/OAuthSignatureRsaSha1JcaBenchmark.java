@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseString_twitter;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures throughput of {@link OAuthSignatureRsaSha1Jca} with and without
+ * reusing initialized {@link java.security.Signature} instances. The
+ * signature base string is prepared in advance so that only the engine is
+ * measured. Verifying with public keys decoded for each call is measured
+ * against verifying with cached public keys and reused engines.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Thread)
+public class OAuthSignatureRsaSha1JcaBenchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OAuthSignatureRsaSha1JcaBenchmark.class.getName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(keysize);
+        final KeyPair keyPair = generator.generateKeyPair();
+        privateKey = keyPair.getPrivate();
+        otherPrivateKey = generator.generateKeyPair().getPrivate();
+        baseBytes = baseString_twitter().get().getBytes("ISO-8859-1");
+        final byte[] publicKey = keyPair.getPublic().getEncoded();
+        final OAuthPublicKeyResolver resolver = k -> publicKey;
+        signature = new OAuthSignatureRsaSha1Jca().initParam(privateKey)
+                .baseString(baseString_twitter()).get();
+        verifyDecoded = new OAuthSignatureRsaSha1Jca()
+                .publicKeyResolver(resolver)
+                .baseString(baseString_twitter());
+        verifyCached = new OAuthSignatureRsaSha1Jca()
+                .engineReused(true)
+                .publicKeyResolver(resolver)
+                .publicKeyCache(new OAuthKeyCache(16))
+                .baseString(baseString_twitter());
+    }
+
+    @Benchmark
+    public byte[] perCall() throws Exception {
+        return perCall.get(privateKey, baseBytes);
+    }
+
+    @Benchmark
+    public byte[] engineReused() throws Exception {
+        return engineReused.get(privateKey, baseBytes);
+    }
+
+    @Benchmark
+    public byte[] engineReusedAlternating() throws Exception {
+        return engineReused.get((alternations++ & 1) == 0
+                                ? privateKey : otherPrivateKey, baseBytes);
+    }
+
+    @Benchmark
+    public boolean verifyDecoded() throws Exception {
+        return verifyDecoded.verify(signature);
+    }
+
+    @Benchmark
+    public boolean verifyCached() throws Exception {
+        return verifyCached.verify(signature);
+    }
+
+    @Param({"1024", "2048"})
+    private int keysize;
+
+    private final OAuthSignatureRsaSha1Jca perCall
+            = new OAuthSignatureRsaSha1Jca();
+
+    private final OAuthSignatureRsaSha1Jca engineReused
+            = new OAuthSignatureRsaSha1Jca().engineReused(true);
+
+    private PrivateKey privateKey;
+
+    private PrivateKey otherPrivateKey;
+
+    private int alternations;
+
+    private byte[] baseBytes;
+
+    private String signature;
+
+    private OAuthSignatureRsaSha1Jca verifyDecoded;
+
+    private OAuthSignatureRsaSha1Jca verifyCached;
+}
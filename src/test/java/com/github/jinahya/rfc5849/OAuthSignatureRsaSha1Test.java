@@ -17,10 +17,20 @@ package com.github.jinahya.rfc5849;
 
 import static java.lang.invoke.MethodHandles.lookup;
 import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
 import java.security.spec.RSAKeyGenParameterSpec;
+import java.util.Date;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.security.auth.x500.X500Principal;
+import org.bouncycastle.x509.X509V3CertificateGenerator;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 import org.testng.annotations.Test;
 import static com.github.jinahya.rfc5849.OAuthBaseStringTest.baseStringBuilderOf;
 
@@ -101,6 +111,107 @@ public abstract class OAuthSignatureRsaSha1Test<T extends OAuthSignatureRsaSha1<
 
     abstract P initParam() throws Exception;
 
+    /**
+     * Converts given private key into an initialization parameter.
+     *
+     * @param privateKey the private key
+     * @return an initialization parameter
+     * @throws Exception if an error occurs.
+     */
+    abstract P initParam(PrivateKey privateKey) throws Exception;
+
+    static KeyPair keyPair() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Returns the DER encoding of a self-signed certificate of given key
+     * pair.
+     */
+    @SuppressWarnings("deprecation")
+    static byte[] certificate(final KeyPair keyPair) throws Exception {
+        final X509V3CertificateGenerator generator
+                = new X509V3CertificateGenerator();
+        final X500Principal principal = new X500Principal("CN=consumer");
+        final long now = System.currentTimeMillis();
+        generator.setSerialNumber(BigInteger.ONE);
+        generator.setIssuerDN(principal);
+        generator.setSubjectDN(principal);
+        generator.setNotBefore(new Date(now - 86400000L));
+        generator.setNotAfter(new Date(now + 86400000L));
+        generator.setPublicKey(keyPair.getPublic());
+        generator.setSignatureAlgorithm("SHA1withRSA");
+        return generator.generate(keyPair.getPrivate()).getEncoded();
+    }
+
+    private void verify(final boolean certificate) throws Exception {
+        final KeyPair keyPair = keyPair();
+        final byte[] encoded = certificate
+                               ? certificate(keyPair)
+                               : keyPair.getPublic().getEncoded();
+        assertEquals(OAuthSignatureRsaSha1.certificate(encoded), certificate);
+        final String consumerKey = "xvz1evFS4wEEPTGEFPHBog";
+        final AtomicInteger resolved = new AtomicInteger();
+        final OAuthPublicKeyResolver resolver = k -> {
+            resolved.incrementAndGet();
+            return consumerKey.equals(k) ? encoded : null;
+        };
+        final String signature = instance()
+                .initParam(initParam(keyPair.getPrivate()))
+                .baseString(OAuthBaseStringTest.baseString_twitter())
+                .get();
+        final byte[] tampered = _Base64.decodeBase64(signature);
+        tampered[0] ^= 1;
+        final OAuthKeyCache publicKeyCache = new OAuthKeyCache(4);
+        for (final boolean engineReused : new boolean[]{false, true}) {
+            final OAuthSignatureRsaSha1<P> verifier = instance()
+                    .engineReused(engineReused)
+                    .publicKeyResolver(resolver)
+                    .publicKeyCache(publicKeyCache)
+                    .baseString(OAuthBaseStringTest.baseString_twitter());
+            for (int i = 0; i < 2; i++) {
+                assertTrue(verifier.verify(signature));
+                assertFalse(verifier.verify(
+                        _Base64.encodeBase64ToString(tampered)));
+                assertFalse(verifier.verify("AAAA"));
+                assertFalse(verifier.verify("!!!!"));
+            }
+            assertFalse(verifier.baseString(
+                    OAuthBaseStringTest.baseString_twitter()
+                    .oauthNonce("other"))
+                    .verify(signature));
+        }
+        assertEquals(resolved.get(), 1);
+        assertEquals(publicKeyCache.hits(), 17L);
+        // unknown consumers are not cached
+        final OAuthSignatureRsaSha1<P> unknown = instance()
+                .publicKeyResolver(resolver)
+                .publicKeyCache(publicKeyCache)
+                .baseString(OAuthBaseStringTest.baseString_twitter()
+                        .oauthConsumerKey("unknown"));
+        assertFalse(unknown.verify(signature));
+        assertFalse(unknown.verify(signature));
+        assertEquals(resolved.get(), 3);
+    }
+
+    @Test
+    public void verifyWithSubjectPublicKeyInfo() throws Exception {
+        verify(false);
+    }
+
+    @Test
+    public void verifyWithCertificate() throws Exception {
+        verify(true);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void verifyWithoutPublicKeyResolver() throws Exception {
+        instance().baseString(OAuthBaseStringTest.baseString_twitter())
+                .verify("AAAA");
+    }
+
     @Test
     public void test() throws Exception {
         final OAuthSignature oauthSignature
@@ -142,4 +253,18 @@ public abstract class OAuthSignatureRsaSha1Test<T extends OAuthSignatureRsaSha1<
         final String signature = oauthSignature.get();
         logger.debug("signature: {}", signature);
     }
+
+    @Test
+    public void engineReused() throws Exception {
+        final P initParam = initParam();
+        final byte[] baseBytes = OAuthBaseStringTest.baseString_twitter()
+                .get().getBytes("ISO-8859-1");
+        final byte[] expected = instance().get(initParam, baseBytes);
+        final T reusing = instance();
+        reusing.engineReused(true);
+        for (int i = 0; i < 3; i++) {
+            final byte[] actual = reusing.get(initParam, baseBytes);
+            assertEquals(actual, expected);
+        }
+    }
 }
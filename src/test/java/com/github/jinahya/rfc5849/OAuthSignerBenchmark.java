@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures signing with a shared {@link OAuthSigner} against building a new
+ * object graph of builders for each request.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OAuthSignerBenchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OAuthSignerBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    private static final String CONSUMER_KEY = "dpf43f3p2l4k3l03";
+
+    private static final String CONSUMER_SECRET = "kd94hf93k423kf44";
+
+    private static final String TOKEN = "nnch734d00sl2jdk";
+
+    private static final String TOKEN_SECRET = "pfkkdhi9sl3r4s00";
+
+    private static final String BASE_URI = "http://photos.example.net/photos";
+
+    @Setup
+    public void setup() throws Exception {
+        signer = new OAuthSigner(
+                new OAuthSignatureHmacSha1Jca()
+                .consumerSecret(CONSUMER_SECRET)
+                .tokenSecret(TOKEN_SECRET),
+                CONSUMER_KEY, TOKEN);
+    }
+
+    @Benchmark
+    public String builders() throws Exception {
+        return new OAuthProtocolParameters()
+                .signature(new OAuthSignatureHmacSha1Jca()
+                        .consumerSecret(CONSUMER_SECRET)
+                        .tokenSecret(TOKEN_SECRET)
+                        .baseString(new OAuthBaseString()
+                                .httpMethod("GET")
+                                .baseUri(BASE_URI)
+                                .queryParameter("file", "vacation.jpg")
+                                .oauthConsumerKey(CONSUMER_KEY)
+                                .oauthToken(TOKEN)
+                                .oauthNonce("kllo9940pd9333jh")
+                                .oauthTimestamp("1191242096")))
+                .authorizationHeader();
+    }
+
+    @Benchmark
+    public String signer() throws Exception {
+        return signer.sign("GET", BASE_URI, PARAMETERS, "kllo9940pd9333jh",
+                           "1191242096");
+    }
+
+    private static final Map<String, List<String>> PARAMETERS
+            = Collections.singletonMap(
+                    "file", Collections.singletonList("vacation.jpg"));
+
+    private OAuthSigner signer;
+}
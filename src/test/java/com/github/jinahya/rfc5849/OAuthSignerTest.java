@@ -0,0 +1,233 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849.OAuthSignatureRsaSah1JcaTest.applyPrivateKey;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link OAuthSigner}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class OAuthSignerTest {
+
+    private static Map<String, List<String>> parameters() {
+        final Map<String, List<String>> parameters = new HashMap<>();
+        parameters.put("b5", Collections.singletonList("=%3D"));
+        parameters.put("a3", Arrays.asList("a", "2 q"));
+        parameters.put("c@", Collections.singletonList(""));
+        parameters.put("a2", Collections.singletonList("r b"));
+        parameters.put("c2", Collections.singletonList(""));
+        return parameters;
+    }
+
+    /**
+     * Signs the same request with the builders.
+     */
+    private static String expected(final OAuthSignature signature,
+                                   final String nonce, final String timestamp)
+            throws Exception {
+        final OAuthBaseString baseString = new OAuthBaseString()
+                .httpMethod("post")
+                .baseUri("http://example.com/request")
+                .oauthConsumerKey("9djdj82h48djs9d2")
+                .oauthToken("kkk9d7dh3k39sjv7")
+                .oauthNonce(nonce)
+                .oauthTimestamp(timestamp);
+        for (final Map.Entry<String, List<String>> entry
+             : parameters().entrySet()) {
+            for (final String value : entry.getValue()) {
+                baseString.queryParameter(entry.getKey(), value);
+            }
+        }
+        signature.baseString(baseString);
+        return new OAuthProtocolParameters()
+                .realm("Example")
+                .signature(signature)
+                .authorizationHeader();
+    }
+
+    private static OAuthSigner signer(final OAuthSignature signature)
+            throws Exception {
+        return new OAuthSigner(signature, "9djdj82h48djs9d2",
+                               "kkk9d7dh3k39sjv7", "Example",
+                               new SimpleOAuthNonce(),
+                               new SimpleOAuthTimestamp());
+    }
+
+    @Test
+    public void hmacSha1() throws Exception {
+        for (final OAuthSignatureHmacSha1 signature
+             : new OAuthSignatureHmacSha1[]{
+                 new OAuthSignatureHmacSha1Jca(),
+                 new OAuthSignatureHmacSha1Bc()}) {
+            signature.consumerSecret("j49sk3j29djd")
+                    .tokenSecret("dh893hdasih9");
+            final OAuthSigner signer = signer(signature);
+            assertEquals(
+                    signer.sign("post", "http://example.com/request",
+                                parameters(), "7d8f3e4a", "137131201"),
+                    expected(signature, "7d8f3e4a", "137131201"));
+        }
+    }
+
+    @Test
+    public void rsaSha1() throws Exception {
+        final PrivateKey privateKey = applyPrivateKey(k -> k);
+        final OAuthSignatureRsaSha1Jca signature
+                = new OAuthSignatureRsaSha1Jca().initParam(privateKey);
+        final OAuthSigner signer = signer(signature);
+        assertEquals(signer.sign("POST", "http://example.com/request",
+                                 parameters(), "7d8f3e4a", "137131201"),
+                     expected(signature, "7d8f3e4a", "137131201"));
+    }
+
+    @Test
+    public void signatureNotKept() throws Exception {
+        final PrivateKey privateKey = applyPrivateKey(k -> k);
+        final OAuthSignatureRsaSha1Jca signature
+                = new OAuthSignatureRsaSha1Jca().initParam(privateKey);
+        final OAuthSigner signer = signer(signature);
+        signature.clear().engineReused(true);
+        assertEquals(signer.sign("POST", "http://example.com/request",
+                                 parameters(), "7d8f3e4a", "137131201"),
+                     expected(new OAuthSignatureRsaSha1Jca().initParam(
+                             privateKey), "7d8f3e4a", "137131201"));
+    }
+
+    @Test
+    public void plaintext() throws Exception {
+        final OAuthSignaturePlaintext signature = new OAuthSignaturePlaintext()
+                .consumerSecret("j49sk3j29djd")
+                .tokenSecret("dh893hdasih9");
+        final OAuthSigner signer = signer(signature);
+        assertEquals(signer.sign("POST", "http://example.com/request",
+                                 parameters(), "7d8f3e4a", "137131201"),
+                     expected(signature, "7d8f3e4a", "137131201"));
+    }
+
+    @Test
+    public void secretsCaptured() throws Exception {
+        final OAuthSignatureHmacSha1 signature = new OAuthSignatureHmacSha1Jca()
+                .consumerSecret("j49sk3j29djd")
+                .tokenSecret("dh893hdasih9");
+        final OAuthSigner signer = signer(signature);
+        final String expected = expected(signature, "n", "0");
+        signature.tokenSecret("changed");
+        assertEquals(signer.sign("POST", "http://example.com/request",
+                                 parameters(), "n", "0"),
+                     expected);
+    }
+
+    @Test
+    public void generated() throws Exception {
+        final OAuthSigner signer = new OAuthSigner(
+                new OAuthSignatureHmacSha1Jca()
+                .consumerSecret("j49sk3j29djd").tokenSecret(""),
+                "9djdj82h48djs9d2", null);
+        final String header = signer.sign("GET", "http://example.com/", null);
+        assertTrue(header.startsWith("OAuth oauth_consumer_key="));
+        assertTrue(header.contains(", oauth_nonce=\""));
+        assertTrue(header.contains(", oauth_timestamp=\""));
+        assertTrue(!header.contains("oauth_token"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void protocolParameterRejected() throws Exception {
+        signer(new OAuthSignatureHmacSha1Jca()
+                .consumerSecret("j49sk3j29djd").tokenSecret(""))
+                .sign("GET", "http://example.com/",
+                      Collections.singletonMap(
+                              "oauth_token",
+                              Collections.singletonList("t")));
+    }
+
+    @Test
+    public void shared() throws Exception {
+        final OAuthSignatureHmacSha1 signature = new OAuthSignatureHmacSha1Bc()
+                .consumerSecret("j49sk3j29djd")
+                .tokenSecret("dh893hdasih9");
+        final OAuthSigner signer = signer(signature);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final String nonce = Integer.toString(i);
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    final String actual = signer.sign(
+                            "POST", "http://example.com/request",
+                            parameters(), nonce, "137131201");
+                    final String expected = expected(
+                            new OAuthSignatureHmacSha1Jca()
+                            .consumerSecret("j49sk3j29djd")
+                            .tokenSecret("dh893hdasih9"),
+                            nonce, "137131201");
+                    assertEquals(actual, expected);
+                    return null;
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sharedRsaSha1() throws Exception {
+        final PrivateKey privateKey = applyPrivateKey(k -> k);
+        final OAuthSigner signer = signer(
+                new OAuthSignatureRsaSha1Jca().initParam(privateKey));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final String nonce = Integer.toString(i);
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    final String actual = signer.sign(
+                            "POST", "http://example.com/request",
+                            parameters(), nonce, "137131201");
+                    final String expected = expected(
+                            new OAuthSignatureRsaSha1Jca()
+                            .initParam(privateKey),
+                            nonce, "137131201");
+                    assertEquals(actual, expected);
+                    return null;
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import com.github.jinahya.rfc5849.WatermarkOAuthNonceStore.Rejection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link WatermarkOAuthNonceStore}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class WatermarkOAuthNonceStoreTest {
+
+    static WatermarkOAuthNonceStore store(final int window, final long[] now) {
+        return new WatermarkOAuthNonceStore(window) {
+            @Override
+            long now() {
+                return now[0];
+            }
+        };
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class})
+    public void constructWithNegativeWindow() {
+        new WatermarkOAuthNonceStore(-1);
+    }
+
+    @Test
+    public void check() {
+        final WatermarkOAuthNonceStore store = new WatermarkOAuthNonceStore();
+        assertNull(store.check("c", "t", 100L, "a"));
+        assertNull(store.check("c", "t", 100L, "b"));
+        assertNull(store.check("c", "t", 100L, "c"));
+        assertEquals(store.check("c", "t", 100L, "b"), Rejection.REPLAYED);
+        assertNull(store.check("c", "t", 101L, "b"));
+        assertEquals(store.check("c", "t", 100L, "d"),
+                     Rejection.OUT_OF_ORDER);
+        assertNull(store.check("c", null, 100L, "a"));
+        assertNull(store.check("d", "t", 100L, "a"));
+        assertEquals(store.size(), 3);
+        assertEquals(store.rejections(Rejection.REPLAYED), 1L);
+        assertEquals(store.rejections(Rejection.OUT_OF_ORDER), 1L);
+        assertEquals(store.rejections(Rejection.OUT_OF_WINDOW), 0L);
+        assertFalse(store.add("c", "t", 101L, "b"));
+        assertTrue(store.add("c", "t", 101L, "a"));
+    }
+
+    @Test
+    public void checkTooManyNonces() {
+        final WatermarkOAuthNonceStore store
+                = new WatermarkOAuthNonceStore(0, 4);
+        for (int i = 0; i < 4; i++) {
+            assertNull(store.check("c", "t", 100L, Integer.toString(i)));
+        }
+        assertEquals(store.check("c", "t", 100L, "4"),
+                     Rejection.TOO_MANY_NONCES);
+        assertEquals(store.check("c", "t", 100L, "0"), Rejection.REPLAYED);
+        assertEquals(store.rejections(Rejection.TOO_MANY_NONCES), 1L);
+        assertNull(store.check("c", "t", 101L, "4"));
+    }
+
+    @Test
+    public void put() {
+        final WatermarkOAuthNonceStore store
+                = new WatermarkOAuthNonceStore(0, 2);
+        assertTrue(store.put("c", "t", 100L, "a"));
+        assertTrue(store.put("c", "t", 100L, "b"));
+        assertFalse(store.put("c", "t", 100L, "c"));
+        assertFalse(store.put("c", "t", 99L, "c"));
+        assertEquals(store.check("c", "t", 100L, "a"), Rejection.REPLAYED);
+        assertTrue(store.put("c", "t", 101L, "a"));
+    }
+
+    @Test
+    public void checkWithWindow() {
+        final long[] now = {1000L};
+        final WatermarkOAuthNonceStore store = store(10, now);
+        assertEquals(store.check("c", "t", 989L, "a"),
+                     Rejection.OUT_OF_WINDOW);
+        assertEquals(store.check("c", "t", 1011L, "a"),
+                     Rejection.OUT_OF_WINDOW);
+        assertNull(store.check("c", "t", 995L, "a"));
+        assertNull(store.check("d", "t", 1005L, "a"));
+        now[0] = 1006L;
+        store.expire();
+        assertEquals(store.size(), 1);
+        // the dropped watermark is outside the window anyway
+        assertEquals(store.check("c", "t", 995L, "a"),
+                     Rejection.OUT_OF_WINDOW);
+        assertNull(store.check("c", "t", 996L, "a"));
+        assertEquals(store.check("d", "t", 1005L, "a"), Rejection.REPLAYED);
+    }
+
+    @Test
+    public void checkConcurrently() throws InterruptedException {
+        final long[] now = {1000L};
+        final WatermarkOAuthNonceStore store = store(10, now);
+        final AtomicInteger accepted = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4096; i++) {
+            final int j = i;
+            executor.submit(() -> {
+                if (j % 64 == 0) {
+                    store.expire();
+                }
+                if (store.add("c" + (j % 4), "t", 1000L,
+                              Integer.toString(j % 256))) {
+                    accepted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+        assertEquals(accepted.get(), 256);
+        assertEquals(store.size(), 4);
+        assertEquals(store.rejections(Rejection.REPLAYED), 4096L - 256L);
+    }
+}
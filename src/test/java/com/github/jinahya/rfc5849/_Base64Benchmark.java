@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static java.lang.Math.ceil;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link _Base64} against its previous implementation for the sizes
+ * of HMAC-SHA1 and RSA-SHA1 signatures.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class _Base64Benchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(_Base64Benchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    private static final byte[] ENCODE = {
+        0x41, 0x42, 0x43, 0x44, 0x45, 0x46, 0x47, 0x48,
+        0x49, 0x4A, 0x4B, 0x4C, 0x4D, 0x4E, 0x4F, 0x50,
+        0x51, 0x52, 0x53, 0x54, 0x55, 0x56, 0x57, 0x58,
+        0x59, 0x5A, 0x61, 0x62, 0x63, 0x64, 0x65, 0x66,
+        0x67, 0x68, 0x69, 0x6A, 0x6B, 0x6C, 0x6D, 0x6E,
+        0x6F, 0x70, 0x71, 0x72, 0x73, 0x74, 0x75, 0x76,
+        0x77, 0x78, 0x79, 0x7A, 0x30, 0x31, 0x32, 0x33,
+        0x34, 0x35, 0x36, 0x37, 0x38, 0x39, 0x2B, 0x2F
+    };
+
+    /**
+     * The way the signatures had been encoded.
+     */
+    private static String legacy(final byte[] input) throws Exception {
+        final byte[] output = new byte[((int) ceil(input.length / 3.0d)) * 4];
+        int index = 0;
+        for (int i = 0; i < input.length; i += 3) {
+            int word = 0;
+            int pads = 0;
+            for (int j = 0; j < 3; j++) {
+                word <<= 8;
+                final int k = i + j;
+                if (k < input.length) {
+                    word |= input[k] & 0xFF;
+                } else {
+                    pads++;
+                }
+            }
+            for (int j = 3; j >= 0; j--) {
+                output[index + j] = pads-- > 0 ? 0x3D : ENCODE[word & 0x3F];
+                word >>= 6;
+            }
+            index += 4;
+        }
+        return new String(output, "ISO-8859-1");
+    }
+
+    @Param({"20", "256"})
+    private int size;
+
+    @Setup
+    public void setup() {
+        input = new byte[size];
+        ThreadLocalRandom.current().nextBytes(input);
+        encoded = _Base64.encodeBase64ToString(input);
+    }
+
+    @Benchmark
+    public String encodeLegacy() throws Exception {
+        return legacy(input);
+    }
+
+    @Benchmark
+    public String encode() {
+        return _Base64.encodeBase64ToString(input);
+    }
+
+    @Benchmark
+    public String encodeJdk() {
+        return java.util.Base64.getEncoder().encodeToString(input);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return _Base64.decodeBase64(encoded);
+    }
+
+    @Benchmark
+    public byte[] decodeJdk() {
+        return java.util.Base64.getDecoder().decode(encoded);
+    }
+
+    private byte[] input;
+
+    private String encoded;
+}
@@ -18,10 +18,12 @@ package com.github.jinahya.rfc5849;
 import static com.github.jinahya.rfc5849._Base64.encodeBase64;
 import static java.lang.invoke.MethodHandles.lookup;
 import static java.util.concurrent.ThreadLocalRandom.current;
+import java.nio.ByteBuffer;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 /**
@@ -73,4 +75,95 @@ public class _Base64Test {
         assertNotNull(decoded);
         assertEquals(decoded.length, 0);
     }
+
+    @Test(invocationCount = 128)
+    public void encodeInto() throws Exception {
+        final byte[] input = new byte[current().nextInt(128)];
+        current().nextBytes(input);
+        final String expected
+                = java.util.Base64.getEncoder().encodeToString(input);
+        final StringBuilder builder = new StringBuilder("-");
+        assertEquals(encodeBase64(input, builder), expected.length());
+        assertEquals(builder.toString(), "-" + expected);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length());
+        assertEquals(encodeBase64(input, buffer), expected.length());
+        assertEquals(buffer.position(), expected.length());
+        buffer.flip();
+        final byte[] bytes = new byte[expected.length() + 1];
+        buffer.get(bytes, 1, buffer.remaining());
+        assertEquals(new String(bytes, 1, expected.length(), "US-ASCII"),
+                     expected);
+        assertEquals(encodeBase64(input, bytes, 1), expected.length());
+        assertEquals(new String(bytes, 1, expected.length(), "US-ASCII"),
+                     expected);
+    }
+
+    @Test(expectedExceptions = {IndexOutOfBoundsException.class})
+    public void encodeIntoShortArray() {
+        encodeBase64(new byte[3], new byte[4], 1);
+    }
+
+    @Test(invocationCount = 128)
+    public void encodeToString() {
+        final byte[] input = new byte[current().nextInt(128)];
+        current().nextBytes(input);
+        assertEquals(_Base64.encodeBase64ToString(input),
+                     java.util.Base64.getEncoder().encodeToString(input));
+    }
+
+    @Test(invocationCount = 128)
+    public void decodeString() {
+        final byte[] expected = new byte[current().nextInt(128)];
+        current().nextBytes(expected);
+        final String encoded
+                = java.util.Base64.getEncoder().encodeToString(expected);
+        assertEquals(_Base64.decodeBase64(encoded), expected);
+    }
+
+    @DataProvider
+    private static Object[][] illegals() {
+        return new Object[][]{
+            {"A"}, {"AAA"}, {"AAAAA"}, // length
+            {"AA=A"}, {"A==="}, {"===="}, {"AA==AAAA"}, // misplaced pads
+            {"AA-A"}, {"AA\u00C0A"}, {"AA\uAC00A"}, {" AAA"} // alphabet
+        };
+    }
+
+    @Test(dataProvider = "illegals",
+          expectedExceptions = IllegalArgumentException.class)
+    public void decodeIllegalString(final String input) {
+        _Base64.decodeBase64(input);
+    }
+
+    @Test(dataProvider = "illegals",
+          expectedExceptions = IllegalArgumentException.class)
+    public void decodeIllegalBytes(final String input) throws Exception {
+        _Base64.decodeBase64(input.getBytes("UTF-8"));
+    }
+
+    @Test(invocationCount = 128)
+    public void encodePercent() throws Exception {
+        final byte[] input = new byte[current().nextInt(128)];
+        current().nextBytes(input);
+        final String encoded = _Base64.encodeBase64ToString(input);
+        final String expected = _Percent.encodePercent(encoded);
+        assertEquals(_Formurl.encodeFormurl(encoded), expected);
+        assertEquals(_Base64.encodedPercentLength(input), expected.length());
+        final StringBuilder builder = new StringBuilder("-");
+        assertEquals(_Base64.encodeBase64Percent(input, builder),
+                     expected.length());
+        assertEquals(builder.toString(), "-" + expected);
+        builder.setLength(0);
+        _Base64.encodeBase64Formurl(input, builder);
+        assertEquals(builder.toString(), expected);
+        final ByteBuffer buffer = ByteBuffer.allocate(expected.length());
+        assertEquals(_Base64.encodeBase64Percent(input, buffer),
+                     expected.length());
+        assertEquals(new String(buffer.array(), "US-ASCII"), expected);
+        final byte[] bytes = new byte[expected.length() + 1];
+        assertEquals(_Base64.encodeBase64Percent(input, bytes, 1),
+                     expected.length());
+        assertEquals(new String(bytes, 1, expected.length(), "US-ASCII"),
+                     expected);
+    }
 }
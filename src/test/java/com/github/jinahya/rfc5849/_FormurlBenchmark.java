@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link _Formurl} against {@link URLEncoder} and {@link URLDecoder}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class _FormurlBenchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(_FormurlBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Param({"token", "ascii", "cjk"})
+    private String corpus;
+
+    @Setup
+    public void setup() throws Exception {
+        if ("token".equals(corpus)) {
+            decoded = "370773112-GmHxMAgYyLbNEtIKZeRNFsMKPR9EyMZeS9weJAEb";
+        } else if ("ascii".equals(corpus)) {
+            decoded = "Hello Ladies + Gentlemen, a signed OAuth request!";
+        } else {
+            decoded = "서명 기반 문자열을 만드는 중입니다 署名ベース文字列 签名基础字符串";
+        }
+        encoded = URLEncoder.encode(decoded, "UTF-8");
+    }
+
+    @Benchmark
+    public String encodeJdk() throws Exception {
+        return URLEncoder.encode(decoded, "UTF-8");
+    }
+
+    @Benchmark
+    public String encodeTable() {
+        return _Formurl.encodeFormurl(decoded);
+    }
+
+    @Benchmark
+    public String decodeJdk() throws Exception {
+        return URLDecoder.decode(encoded, "UTF-8");
+    }
+
+    @Benchmark
+    public String decodeTable() {
+        return _Formurl.decodeFormurl(encoded);
+    }
+
+    private String decoded;
+
+    private String encoded;
+}
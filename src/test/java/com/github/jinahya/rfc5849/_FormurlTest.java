@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849._Formurl.decodeFormurl;
+import static com.github.jinahya.rfc5849._Formurl.encodeFormurl;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import org.apache.commons.lang3.RandomStringUtils;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link _Formurl}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class _FormurlTest {
+
+    private static String random() {
+        final char[] chars = new char[current().nextInt(64)];
+        for (int i = 0; i < chars.length; i++) {
+            switch (current().nextInt(4)) {
+                case 0:
+                    chars[i] = (char) current().nextInt(0x80);
+                    break;
+                case 1:
+                    chars[i] = (char) current().nextInt(0x80, 0x800);
+                    break;
+                case 2:
+                    chars[i] = (char) current().nextInt(0xD800, 0xE000);
+                    break;
+                default:
+                    chars[i] = (char) current().nextInt(0x800, 0x10000);
+                    break;
+            }
+        }
+        return new String(chars);
+    }
+
+    @Test(invocationCount = 128)
+    public void encodeAgainstUrlEncoder() throws Exception {
+        final String decoded = random();
+        assertEquals(encodeFormurl(decoded),
+                     URLEncoder.encode(decoded, "UTF-8"));
+    }
+
+    @Test(invocationCount = 128)
+    public void decodeAgainstUrlDecoder() throws Exception {
+        final StringBuilder encoded = new StringBuilder();
+        for (int i = current().nextInt(32); i > 0; i--) {
+            switch (current().nextInt(4)) {
+                case 0:
+                    encoded.append(URLEncoder.encode(random(), "UTF-8"));
+                    break;
+                case 1:
+                    encoded.append('+');
+                    break;
+                case 2:
+                    encoded.append(String.format(
+                            "%%%02x", current().nextInt(0x100)));
+                    break;
+                default:
+                    encoded.append(random().replace('%', '_'));
+                    break;
+            }
+        }
+        assertEquals(decodeFormurl(encoded.toString()),
+                     URLDecoder.decode(encoded.toString(), "UTF-8"));
+    }
+
+    @Test
+    public void returnAsIs() {
+        final String decoded = "abcXYZ019-._*";
+        assertSame(encodeFormurl(decoded), decoded);
+        final String encoded = "a%b".replace("%", "~");
+        assertSame(decodeFormurl(encoded), encoded);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void decodeIncompleteEscape() {
+        decodeFormurl("a%4");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void decodeIllegalEscape() {
+        decodeFormurl("a%-1");
+    }
+
+    @Test(invocationCount = 128)
+    public void encodeInto() throws Exception {
+        final String decoded = current().nextBoolean()
+                               ? RandomStringUtils.randomAscii(
+                                       current().nextInt(64))
+                               : RandomStringUtils.random(
+                                       current().nextInt(64));
+        final String expected = encodeFormurl(decoded);
+        final StringBuilder builder = new StringBuilder("-");
+        assertEquals(encodeFormurl(decoded, builder), expected.length());
+        assertEquals(builder.toString(), "-" + expected);
+        final ByteBuffer buffer = ByteBuffer.allocate(expected.length());
+        assertEquals(encodeFormurl(decoded, buffer), expected.length());
+        assertEquals(new String(buffer.array(), "US-ASCII"), expected);
+        final byte[] bytes = new byte[expected.length() + 1];
+        assertEquals(encodeFormurl(decoded, bytes, 1), expected.length());
+        assertEquals(new String(bytes, 1, expected.length(), "US-ASCII"),
+                     expected);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link _Header} against building the header with a string builder.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class _HeaderBenchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(_HeaderBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Benchmark
+    public String legacy() {
+        return _HeaderTest.legacy(REALM, PARAMETERS);
+    }
+
+    @Benchmark
+    public String template() {
+        return _Header.toString(REALM, PARAMETERS);
+    }
+
+    @Benchmark
+    public ByteBuffer templateBuffer() {
+        buffer.clear();
+        _Header.write(REALM, PARAMETERS, buffer);
+        return buffer;
+    }
+
+    private static final String REALM = "Photos";
+
+    private static final Map<String, Object> PARAMETERS = new TreeMap<>();
+
+    static {
+        PARAMETERS.put(OAuthConstants.OAUTH_CONSUMER_KEY, "dpf43f3p2l4k3l03");
+        PARAMETERS.put(OAuthConstants.OAUTH_NONCE, "kllo9940pd9333jh");
+        PARAMETERS.put(OAuthConstants.OAUTH_SIGNATURE, new byte[]{
+            (byte) 0xb5, 0x1d, (byte) 0xfe, 0x4f, 0x2f, 0x35, (byte) 0x94,
+            (byte) 0xc7, (byte) 0x98, 0x02, (byte) 0xbf, 0x16, 0x27, 0x4d,
+            0x24, 0x31, 0x36, 0x1a, (byte) 0xfd, 0x65});
+        PARAMETERS.put(OAuthConstants.OAUTH_SIGNATURE_METHOD, "HMAC-SHA1");
+        PARAMETERS.put(OAuthConstants.OAUTH_TIMESTAMP, "1191242096");
+        PARAMETERS.put(OAuthConstants.OAUTH_TOKEN, "nnch734d00sl2jdk");
+        PARAMETERS.put(OAuthConstants.OAUTH_VERSION, "1.0");
+    }
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(512);
+}
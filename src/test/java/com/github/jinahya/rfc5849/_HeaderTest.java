@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849._Base64.encodeBase64ToString;
+import static com.github.jinahya.rfc5849._Percent.encodePercent;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link _Header}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class _HeaderTest {
+
+    /**
+     * The way the header had been built with a string builder.
+     */
+    static String legacy(final String realm,
+                         final Map<String, Object> parameters) {
+        final StringBuilder builder = new StringBuilder("OAuth");
+        if (realm != null) {
+            builder.append(" realm=\"").append(realm).append("\"");
+        }
+        for (final Entry<String, Object> entry : parameters.entrySet()) {
+            if (builder.length() > "OAuth".length()) {
+                builder.append(",");
+            }
+            final Object value = entry.getValue();
+            builder.append(" ")
+                    .append(encodePercent(entry.getKey()))
+                    .append("=\"")
+                    .append(encodePercent(value instanceof byte[]
+                                          ? encodeBase64ToString((byte[]) value)
+                                          : (String) value))
+                    .append("\"");
+        }
+        return builder.toString();
+    }
+
+    private static Map<String, Object> parameters(
+            final ThreadLocalRandom random) {
+        final Map<String, Object> parameters = new TreeMap<>();
+        final String[] names = {
+            OAuthConstants.OAUTH_CONSUMER_KEY,
+            OAuthConstants.OAUTH_NONCE,
+            OAuthConstants.OAUTH_TIMESTAMP,
+            "oauth_custom",
+            "oauth_k=y"
+        };
+        for (final String name : names) {
+            if (random.nextBoolean()) {
+                parameters.put(name, random.nextBoolean() ? "v a" : "v/가");
+            }
+        }
+        if (random.nextBoolean()) {
+            final byte[] signature = new byte[random.nextInt(24)];
+            random.nextBytes(signature);
+            parameters.put(OAuthConstants.OAUTH_SIGNATURE, signature);
+        }
+        return parameters;
+    }
+
+    @Test(invocationCount = 128)
+    public void againstLegacy() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final String realm = random.nextBoolean()
+                             ? (random.nextBoolean() ? "Photos" : "사진")
+                             : null;
+        final Map<String, Object> parameters = parameters(random);
+        final String expected = legacy(realm, parameters);
+        assertEquals(_Header.length(realm, parameters), expected.length());
+        assertEquals(_Header.toString(realm, parameters), expected);
+        if (realm != null && realm.charAt(0) > 0xFF) {
+            return;
+        }
+        final byte[] array = new byte[expected.length() + 2];
+        assertEquals(_Header.write(realm, parameters, array, 2),
+                     expected.length());
+        assertEquals(new String(array, 2, expected.length(),
+                                StandardCharsets.US_ASCII),
+                     expected);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length());
+        assertEquals(_Header.write(realm, parameters, buffer),
+                     expected.length());
+        buffer.flip();
+        assertEquals(StandardCharsets.US_ASCII.decode(buffer).toString(),
+                     expected);
+    }
+
+    @Test
+    public void toStringLatin1Realm() {
+        final Map<String, Object> parameters = new TreeMap<>();
+        parameters.put(OAuthConstants.OAUTH_NONCE, "nonce");
+        assertEquals(_Header.toString("Fotos für dich", parameters),
+                     legacy("Fotos für dich", parameters));
+    }
+
+    @Test
+    public void writeShortBuffer() {
+        final Map<String, Object> parameters = new TreeMap<>();
+        parameters.put(OAuthConstants.OAUTH_NONCE, "nonce");
+        final int length = _Header.length(null, parameters);
+        final ByteBuffer buffer = ByteBuffer.allocate(length - 1);
+        try {
+            _Header.write(null, parameters, buffer);
+            throw new AssertionError("should've been thrown");
+        } catch (final BufferOverflowException boe) {
+            assertEquals(buffer.position(), 0);
+        }
+        try {
+            _Header.write(null, parameters, new byte[length], 1);
+            throw new AssertionError("should've been thrown");
+        } catch (final IndexOutOfBoundsException ioobe) {
+            // expected
+        }
+    }
+}
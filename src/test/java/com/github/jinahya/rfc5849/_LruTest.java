@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link _Lru}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class _LruTest {
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        final _Lru<String, Integer> lru = new _Lru<>(2);
+        final String a = new String("a");
+        final String b = new String("b");
+        final String c = new String("c");
+        lru.put(a, 1);
+        lru.put(b, 2);
+        assertEquals(lru.get(a), Integer.valueOf(1)); // a is now the recent
+        lru.put(c, 3); // evicts b
+        assertEquals(lru.size(), 2);
+        assertNull(lru.get(b));
+        assertEquals(lru.get(a), Integer.valueOf(1));
+        assertEquals(lru.get(c), Integer.valueOf(3));
+    }
+
+    @Test
+    public void compareByIdentity() {
+        final _Lru<String, Integer> lru = new _Lru<>(2);
+        lru.put(new String("a"), 1);
+        assertNull(lru.get(new String("a")));
+    }
+}
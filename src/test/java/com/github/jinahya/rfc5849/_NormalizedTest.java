@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import static com.github.jinahya.rfc5849._Percent.encodePercent;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link _Normalized}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class _NormalizedTest {
+
+    /**
+     * The way the normalized parameters had been built with a tree map.
+     */
+    static String legacy(final Map<String, List<String>> parameters) {
+        final Map<String, List<String>> encoded = new TreeMap<>();
+        for (final Entry<String, List<String>> entry : parameters.entrySet()) {
+            final List<String> values = new ArrayList<>();
+            for (final String value : entry.getValue()) {
+                values.add(encodePercent(value));
+            }
+            Collections.sort(values);
+            encoded.put(encodePercent(entry.getKey()), values);
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (final Entry<String, List<String>> entry : encoded.entrySet()) {
+            for (final String value : entry.getValue()) {
+                if (builder.length() > 0) {
+                    builder.append('&');
+                }
+                builder.append(entry.getKey()).append('=').append(value);
+            }
+        }
+        return encodePercent(builder.toString());
+    }
+
+    private static String string(final ThreadLocalRandom random) {
+        final char[] chars = new char[random.nextInt(8)];
+        for (int i = 0; i < chars.length; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    chars[i] = (char) ('a' + random.nextInt(3));
+                    break;
+                case 1:
+                    chars[i] = " %&=+~*"
+                            .charAt(random.nextInt(7));
+                    break;
+                case 2:
+                    chars[i] = (char) (0x80 + random.nextInt(0x780));
+                    break;
+                default:
+                    chars[i] = (char) (0xAC00 + random.nextInt(16));
+                    break;
+            }
+        }
+        return new String(chars);
+    }
+
+    @Test(invocationCount = 128)
+    public void toByteArray() throws Exception {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Map<String, List<String>> parameters = new HashMap<>();
+        for (int i = random.nextInt(16); i > 0; i--) {
+            final List<String> values = new ArrayList<>();
+            for (int j = random.nextInt(4) + 1; j > 0; j--) {
+                values.add(string(random));
+            }
+            parameters.put(string(random), values);
+        }
+        final String expected = legacy(parameters);
+        final _Normalized normalized = new _Normalized(null, _ParametersTest.of(parameters));
+        assertEquals(normalized.length(), expected.length());
+        assertEquals(new String(normalized.toByteArray(), "US-ASCII"),
+                     expected);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        normalized.write(output);
+        assertEquals(output.toString("US-ASCII"), expected);
+    }
+
+    @Test
+    public void writeLongerThanChunk() throws Exception {
+        final Map<String, List<String>> parameters = new HashMap<>();
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1024; i++) {
+            value.append(i % 2 == 0 ? 'a' : '가');
+        }
+        parameters.put("k", Collections.singletonList(value.toString()));
+        parameters.put("&", new ArrayList<>(Collections.nCopies(3, "=")));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new _Normalized(null, _ParametersTest.of(parameters)).write(output);
+        assertEquals(output.toString("US-ASCII"), legacy(parameters));
+    }
+
+    @Test
+    public void empty() throws Exception {
+        final _Normalized normalized
+                = new _Normalized(null, new _Parameters());
+        assertEquals(normalized.length(), 0);
+        assertEquals(normalized.toByteArray().length, 0);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        normalized.write(output);
+        assertEquals(output.size(), 0);
+    }
+
+    @Test(invocationCount = 128)
+    public void merge() throws Exception {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Map<String, List<String>> statics = new HashMap<>();
+        final Map<String, List<String>> dynamics = new HashMap<>();
+        final Map<String, List<String>> merged = new HashMap<>();
+        for (int i = random.nextInt(16); i > 0; i--) {
+            final String key = (random.nextBoolean() ? "oauth_" : "")
+                               + string(random);
+            final List<String> values = new ArrayList<>();
+            for (int j = random.nextInt(3) + 1; j > 0; j--) {
+                values.add(string(random));
+            }
+            final Map<String, List<String>> target
+                    = random.nextBoolean() ? statics : dynamics;
+            if (target.containsKey(key)) {
+                continue;
+            }
+            target.put(key, values);
+        }
+        merged.putAll(statics);
+        for (final Entry<String, List<String>> entry : dynamics.entrySet()) {
+            final String key = entry.getKey();
+            if (key.startsWith("oauth_") || !merged.containsKey(key)) {
+                merged.put(key, entry.getValue());
+                continue;
+            }
+            final List<String> values = new ArrayList<>(merged.get(key));
+            values.addAll(entry.getValue());
+            merged.put(key, values);
+        }
+        final String expected = legacy(merged);
+        final _Normalized base = new _Normalized(null, _ParametersTest.of(statics));
+        final _Normalized normalized = new _Normalized(base, _ParametersTest.of(dynamics));
+        assertEquals(normalized.length(), expected.length());
+        assertEquals(new String(normalized.toByteArray(), "US-ASCII"),
+                     expected);
+        // twice, on top of a merged one
+        assertEquals(new String(new _Normalized(normalized, _ParametersTest.of(dynamics))
+                .toByteArray(), "US-ASCII"),
+                     legacy(mergeAgain(merged, dynamics)));
+        assertEquals(new String(base.toByteArray(), "US-ASCII"),
+                     legacy(statics));
+    }
+
+    private static Map<String, List<String>> mergeAgain(
+            final Map<String, List<String>> merged,
+            final Map<String, List<String>> dynamics) {
+        final Map<String, List<String>> result = new HashMap<>(merged);
+        for (final Entry<String, List<String>> entry : dynamics.entrySet()) {
+            final String key = entry.getKey();
+            if (key.startsWith("oauth_")) {
+                continue;
+            }
+            final List<String> values = new ArrayList<>(result.get(key));
+            values.addAll(entry.getValue());
+            result.put(key, values);
+        }
+        return result;
+    }
+}
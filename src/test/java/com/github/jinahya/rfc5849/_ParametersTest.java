@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 Jin Kwon &lt;jinahya_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.rfc5849;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import static java.lang.invoke.MethodHandles.lookup;
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.testng.SkipException;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link _Parameters}.
+ *
+ * @author Jin Kwon &lt;jinahya_at_gmail.com&gt;
+ */
+public class _ParametersTest {
+
+    private static final Logger logger = getLogger(lookup().lookupClass());
+
+    /**
+     * Returns a new instance holding all entries of given map.
+     *
+     * @param map the map
+     * @return a new instance
+     */
+    static _Parameters of(final Map<String, List<String>> map) {
+        final _Parameters parameters = new _Parameters();
+        map.forEach((k, v) -> v.forEach(value -> parameters.add(k, value)));
+        return parameters;
+    }
+
+    /**
+     * Copies entries of given parameters into a new map.
+     *
+     * @param parameters the parameters
+     * @return a new map
+     */
+    static Map<String, List<String>> toMap(final _Parameters parameters) {
+        final Map<String, List<String>> map = new HashMap<>();
+        for (int i = 0; i < parameters.size(); i++) {
+            map.computeIfAbsent(parameters.key(i), k -> new ArrayList<>())
+                    .add(parameters.value(i));
+        }
+        return map;
+    }
+
+    /**
+     * Returns the minimum number of bytes allocated, by current thread, for
+     * getting a value from given supplier.
+     */
+    private static long allocated(final Supplier<?> supplier) {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new SkipException("allocated bytes not supported");
+        }
+        final com.sun.management.ThreadMXBean sun
+                = (com.sun.management.ThreadMXBean) bean;
+        if (!sun.isThreadAllocatedMemorySupported()
+            || !sun.isThreadAllocatedMemoryEnabled()) {
+            throw new SkipException("allocated bytes not supported");
+        }
+        final long id = Thread.currentThread().getId();
+        long minimum = Long.MAX_VALUE;
+        for (int i = 0; i < 16; i++) {
+            final long before = sun.getThreadAllocatedBytes(id);
+            final Object value = supplier.get();
+            final long after = sun.getThreadAllocatedBytes(id);
+            assertTrue(value != null);
+            minimum = Math.min(minimum, after - before);
+        }
+        return minimum;
+    }
+
+    @Test
+    public void addKeepsAllValues() {
+        final _Parameters parameters = new _Parameters();
+        parameters.add("a", "1");
+        parameters.add("b", "2");
+        parameters.add("a", "3");
+        assertEquals(parameters.size(), 3);
+        assertEquals(parameters.names(), 2);
+        assertEquals(parameters.key(2), "a");
+        assertEquals(parameters.value(2), "3");
+        assertEquals(parameters.first("a"), "1");
+        assertSame(parameters.key(0), parameters.key(2));
+    }
+
+    @Test
+    public void putReplacesAllValues() {
+        final _Parameters parameters = new _Parameters();
+        parameters.add("oauth_token", "1");
+        parameters.add("b", "2");
+        parameters.add("oauth_token", "3");
+        parameters.put("oauth_token", "4");
+        assertEquals(parameters.size(), 2);
+        assertEquals(parameters.key(0), "b");
+        assertEquals(parameters.first("oauth_token"), "4");
+    }
+
+    @Test
+    public void remove() {
+        final _Parameters parameters = new _Parameters();
+        parameters.add("a", "1");
+        parameters.add("b", "2");
+        parameters.remove("a");
+        parameters.remove("c");
+        assertEquals(parameters.size(), 1);
+        assertFalse(parameters.containsKey("a"));
+        assertNull(parameters.first("a"));
+        assertTrue(parameters.containsKey("b"));
+        parameters.add("a", "3");
+        assertEquals(parameters.first("a"), "3");
+    }
+
+    @Test
+    public void knownKeysInterned() {
+        final _Parameters parameters = new _Parameters();
+        parameters.put(new String(OAuthConstants.OAUTH_NONCE), "n");
+        assertSame(parameters.key(0), OAuthConstants.OAUTH_NONCE);
+    }
+
+    @Test
+    public void manyKeys() {
+        final _Parameters parameters = new _Parameters();
+        for (int i = 0; i < 1024; i++) {
+            parameters.add("k" + i, Integer.toString(i));
+            parameters.add("k" + (i / 2), "x");
+        }
+        assertEquals(parameters.names(), 1024);
+        assertEquals(parameters.size(), 2048);
+        for (int i = 0; i < 1024; i++) {
+            assertEquals(parameters.first("k" + i), Integer.toString(i));
+        }
+    }
+
+    @Test
+    public void clear() {
+        final _Parameters parameters = new _Parameters();
+        for (int i = 0; i < 64; i++) {
+            parameters.add("k" + i, "v");
+        }
+        parameters.clear();
+        assertEquals(parameters.size(), 0);
+        assertEquals(parameters.names(), 0);
+        assertFalse(parameters.containsKey("k0"));
+        parameters.add("k1", "v1");
+        assertEquals(parameters.first("k1"), "v1");
+    }
+
+    @Test
+    public void normalizedSameAsMap() {
+        final _Parameters parameters = OAuthBaseStringTest.baseString_twitter()
+                .requestParameters();
+        assertEquals(new _Normalized(null, parameters).toByteArray(),
+                     new _Normalized(null, of(toMap(parameters))).toByteArray());
+    }
+
+    /**
+     * Compares bytes allocated for holding many distinct keys with those
+     * allocated by a hash map of array lists.
+     */
+    @Test
+    public void footprint() {
+        final String[] keys = new String[256];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+        }
+        final long map = allocated(() -> {
+            final Map<String, List<String>> m = new HashMap<>();
+            for (final String key : keys) {
+                m.computeIfAbsent(key, k -> new ArrayList<>()).add(key);
+            }
+            return m;
+        });
+        final long parameters = allocated(() -> {
+            final _Parameters p = new _Parameters();
+            for (final String key : keys) {
+                p.add(key, key);
+            }
+            return p;
+        });
+        logger.debug("allocated; map: {}, parameters: {}", map, parameters);
+        assertTrue(parameters * 2 < map,
+                   "parameters: " + parameters + ", map: " + map);
+    }
+}
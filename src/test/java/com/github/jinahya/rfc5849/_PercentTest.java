@@ -19,10 +19,16 @@ import static com.github.jinahya.rfc5849._Percent.decodePercent;
 import static com.github.jinahya.rfc5849._Percent.encodePercent;
 import static java.lang.invoke.MethodHandles.lookup;
 import static java.util.concurrent.ThreadLocalRandom.current;
+import java.net.URLEncoder;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
 import org.testng.annotations.Test;
 
 /**
@@ -41,4 +47,78 @@ public class _PercentTest {
         final String actual = decodePercent(encoded);
         assertEquals(actual, expected);
     }
+
+    @Test(invocationCount = 128)
+    public void encodeAgainstUrlEncoder() throws Exception {
+        final String decoded = current().nextBoolean()
+                               ? RandomStringUtils.randomAscii(
+                                       current().nextInt(0, 128))
+                               : RandomStringUtils.random(
+                                       current().nextInt(0, 128));
+        final String expected = URLEncoder.encode(decoded, "UTF-8")
+                .replace("+", "%20").replace("*", "%2A").replace("%7E", "~");
+        assertEquals(encodePercent(decoded), expected);
+        assertEquals(encodePercent(decoded, "UTF-8"), expected);
+    }
+
+    @Test
+    public void encodeUnreservedAsIs() {
+        final String decoded = "abcXYZ019-._~";
+        assertSame(encodePercent(decoded), decoded);
+        assertSame(encodePercent(""), "");
+    }
+
+    @Test(invocationCount = 128)
+    public void encodeCharSequence() throws Exception {
+        final char[] chars = new char[current().nextInt(0, 64)];
+        for (int i = 0; i < chars.length; i++) {
+            switch (current().nextInt(4)) {
+                case 0:
+                    chars[i] = (char) current().nextInt(0x80);
+                    break;
+                case 1:
+                    chars[i] = (char) current().nextInt(0x80, 0x800);
+                    break;
+                case 2:
+                    chars[i] = (char) current().nextInt(0xD800, 0xE000);
+                    break;
+                default:
+                    chars[i] = (char) current().nextInt(0x800, 0x10000);
+                    break;
+            }
+        }
+        final String decoded = new String(chars);
+        final String expected = encodePercent(decoded, "UTF-8");
+        assertEquals(encodePercent(decoded), expected);
+        assertEquals(encodePercent(new StringBuilder(decoded)), expected);
+        assertEquals(encodePercent(CharBuffer.wrap(chars)), expected);
+    }
+
+    @Test(invocationCount = 128)
+    public void encodeInto() throws Exception {
+        final String decoded = RandomStringUtils.random(current().nextInt(64));
+        final String expected = encodePercent(decoded);
+        final StringBuilder builder = new StringBuilder("-");
+        assertEquals(encodePercent(decoded, builder), expected.length());
+        assertEquals(builder.toString(), "-" + expected);
+        final ByteBuffer buffer = ByteBuffer.allocate(expected.length() + 1);
+        buffer.put((byte) '-');
+        assertEquals(encodePercent(decoded, buffer), expected.length());
+        assertEquals(new String(buffer.array(), "US-ASCII"), "-" + expected);
+        final byte[] bytes = new byte[expected.length() + 1];
+        assertEquals(encodePercent(decoded, bytes, 1), expected.length());
+        assertEquals(new String(bytes, 1, expected.length(), "US-ASCII"),
+                     expected);
+    }
+
+    @Test
+    public void encodeIntoShortBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(2);
+        try {
+            encodePercent(" ", buffer);
+            fail("no exception thrown");
+        } catch (final BufferOverflowException boe) {
+            assertEquals(buffer.position(), 0);
+        }
+    }
 }